@@ -2,8 +2,10 @@ package org.example.dentalclinicmanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DentalClinicManagementApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,50 @@
+package org.example.dentalclinicmanagement.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user Google Calendar access status with a TTL. Entries are refreshed passively
+ * from the outcome of real calendar calls, so status checks do not hit Google.
+ */
+@Slf4j
+@Component
+public class CalendarAccessCache {
+
+    @Value("${calendar.access-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @return cached access status, or {@code null} if nothing is cached or the entry expired
+     */
+    public Boolean getIfPresent(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(userId, entry);
+            return null;
+        }
+        return entry.hasAccess();
+    }
+
+    public void put(Long userId, boolean hasAccess) {
+        entries.put(userId, new Entry(hasAccess, System.currentTimeMillis() + ttlMs));
+    }
+
+    public void invalidate(Long userId) {
+        if (entries.remove(userId) != null) {
+            log.debug("Calendar access status invalidated for user {}", userId);
+        }
+    }
+
+    private record Entry(boolean hasAccess, long expiresAt) {
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.dentalclinicmanagement.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user security version with a TTL. Tokens carry the version they were issued with;
+ * bumping it (role change, password reset) invalidates every token issued before.
+ * The database is consulted only when the entry is missing or expired.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityVersionCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.version-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = getVersion(userId);
+        return current != null && current == tokenVersion;
+    }
+
+    public void put(Long userId, int version) {
+        entries.put(userId, new Entry(version, System.currentTimeMillis() + ttlMs));
+    }
+
+    public void invalidate(Long userId) {
+        if (entries.remove(userId) != null) {
+            log.debug("Security version invalidated for user {}", userId);
+        }
+    }
+
+    /**
+     * @return current security version, or {@code null} if the user no longer exists
+     */
+    private Integer getVersion(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt() >= System.currentTimeMillis()) {
+            return entry.version();
+        }
+
+        Integer version = userRepository.findSecurityVersionById(userId).orElse(null);
+        if (version == null) {
+            entries.remove(userId);
+            return null;
+        }
+        put(userId, version);
+        return version;
+    }
+
+    private record Entry(int version, long expiresAt) {
+    }
+}
@@ -5,9 +5,12 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dentalclinicmanagement.dto.ClinicSettingsDto;
-import org.example.dentalclinicmanagement.dto.ImportReport;
+import org.example.dentalclinicmanagement.dto.ImportJobDto;
+import org.example.dentalclinicmanagement.model.ImportMode;
+import org.example.dentalclinicmanagement.service.AppointmentExportService;
 import org.example.dentalclinicmanagement.service.ClinicSettingsService;
 import org.example.dentalclinicmanagement.service.ImportExportUserService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +19,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -24,12 +33,28 @@ import java.io.IOException;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final ImportExportUserService importExportUserService;
+    private final AppointmentExportService appointmentExportService;
     private final ClinicSettingsService settingsService;
 
     @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ImportReport importUsers(@RequestPart("file") MultipartFile file) throws IOException {
-        return importExportUserService.importFile(file.getInputStream(), file.getOriginalFilename());
+    public ResponseEntity<ImportJobDto> importUsers(@RequestPart("file") MultipartFile file,
+                                                    @RequestParam(defaultValue = "INCREMENTAL") ImportMode mode)
+            throws IOException {
+        ImportJobDto job = importExportUserService.submitImport(file.getInputStream(), file.getOriginalFilename(), mode);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobDto> getImportJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(importExportUserService.getImportJob(jobId));
+    }
+
+    @PostMapping("/import/{jobId}/resume")
+    public ResponseEntity<ImportJobDto> resumeImport(@PathVariable UUID jobId) {
+        return ResponseEntity.accepted().body(importExportUserService.resumeImport(jobId));
     }
 
     @GetMapping("/export")
@@ -41,7 +66,7 @@ public class AdminController {
                     "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
             resp.setHeader(HttpHeaders.CONTENT_DISPOSITION,
                     "attachment; filename=\"users-export.xlsx\"");
-            resp.getOutputStream().write(importExportUserService.exportXlsx());
+            importExportUserService.exportXlsx(resp.getOutputStream());
         } else {
             resp.setContentType("text/csv; charset=UTF-8");
             resp.setHeader(HttpHeaders.CONTENT_DISPOSITION,
@@ -50,6 +75,38 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/appointments/export")
+    public void exportAppointments(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   @RequestParam(required = false) Long dentistId,
+                                   @RequestParam(defaultValue = "csv") String format,
+                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                   HttpServletResponse resp) throws IOException {
+        appointmentExportService.validateRange(from, to);
+
+        boolean xlsx = "xlsx".equalsIgnoreCase(format);
+        String fileName = "appointments-" + from + "-" + to + (xlsx ? ".xlsx" : ".csv") + (gzip ? ".gz" : "");
+        resp.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (gzip) {
+            resp.setContentType("application/gzip");
+        } else if (xlsx) {
+            resp.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        } else {
+            resp.setContentType("text/csv; charset=UTF-8");
+        }
+
+        OutputStream out = gzip ? new GZIPOutputStream(resp.getOutputStream(), GZIP_BUFFER_SIZE) : resp.getOutputStream();
+        if (xlsx) {
+            appointmentExportService.exportXlsx(from, to, dentistId, out);
+            if (out instanceof GZIPOutputStream gz) {
+                gz.finish();
+            }
+        } else {
+            // the CSV printer closes the writer when done, which also finishes the gzip stream
+            appointmentExportService.exportCsv(from, to, dentistId, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+    }
+
 
     @GetMapping("/settings")
     public ResponseEntity<ClinicSettingsDto> getSettings() {
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dentalclinicmanagement.dto.request.ForgotPasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.LoginRequest;
+import org.example.dentalclinicmanagement.dto.request.RefreshTokenRequest;
 import org.example.dentalclinicmanagement.dto.request.ResetPasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.SignupRequest;
 import org.example.dentalclinicmanagement.dto.response.JwtResponse;
@@ -39,6 +40,22 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        JwtResponse response = authService.refreshToken(refreshTokenRequest.getRefreshToken());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest,
+                                    @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authService.logout(refreshTokenRequest.getRefreshToken(), accessToken);
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+    }
+
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest) {
         log.info("Password reset email sent for: {}", forgotPasswordRequest.getEmail());
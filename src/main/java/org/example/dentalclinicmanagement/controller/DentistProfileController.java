@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.dentalclinicmanagement.dto.DentistProfileDto;
 import org.example.dentalclinicmanagement.dto.request.UpdateDentistProfileRequest;
 import org.example.dentalclinicmanagement.dto.response.MessageResponse;
+import org.example.dentalclinicmanagement.model.Role;
 import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
 import org.example.dentalclinicmanagement.service.DentistProfileService;
 import org.springframework.data.domain.Page;
@@ -76,8 +77,7 @@ public class DentistProfileController {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
 
-        boolean isAdmin = userDetails.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isAdmin = userDetails.getRole() == Role.ADMIN;
         boolean isOwnProfile = userDetails.getId().equals(dentistId);
 
         if (!isAdmin && !isOwnProfile) {
@@ -98,8 +98,7 @@ public class DentistProfileController {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
 
-        boolean isAdmin = userDetails.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isAdmin = userDetails.getRole() == Role.ADMIN;
         boolean isOwnProfile = userDetails.getId().equals(dentistId);
 
         if (!isAdmin && !isOwnProfile) {
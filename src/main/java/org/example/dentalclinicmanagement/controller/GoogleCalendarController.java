@@ -2,10 +2,9 @@ package org.example.dentalclinicmanagement.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.dentalclinicmanagement.dto.response.MessageResponse;
+import org.example.dentalclinicmanagement.dto.CalendarCleanupStatusDto;
 import org.example.dentalclinicmanagement.model.GoogleCredential;
 import org.example.dentalclinicmanagement.model.User;
-import org.example.dentalclinicmanagement.repository.AppointmentCalendarLinkRepository;
 import org.example.dentalclinicmanagement.repository.GoogleCredentialRepository;
 import org.example.dentalclinicmanagement.repository.UserRepository;
 import org.example.dentalclinicmanagement.service.CalendarService;
@@ -13,7 +12,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URLEncoder;
@@ -21,6 +19,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/calendar")
@@ -29,7 +28,6 @@ import java.util.Optional;
 public class GoogleCalendarController {
 
     private final GoogleCredentialRepository credentialRepository;
-    private final AppointmentCalendarLinkRepository linkRepository;
     private final UserRepository userRepository;
     private final CalendarService calendarService;
 
@@ -103,21 +101,39 @@ public class GoogleCalendarController {
     }
 
     @DeleteMapping("/unlink")
-    @Transactional
-    public ResponseEntity<MessageResponse> unlinkCalendar(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<Map<String, Object>> unlinkCalendar(@AuthenticationPrincipal UserDetails userDetails) {
+        Map<String, Object> response = new HashMap<>();
+
         try {
             User user = userRepository.findByEmail(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            credentialRepository.findByUser(user).ifPresent(credentialRepository::delete);
-            linkRepository.deleteAllByUserId(user.getId());
+            CalendarCleanupStatusDto cleanup = calendarService.unlinkCalendar(user);
 
-            return ResponseEntity.ok(new MessageResponse("Calendar disconnected successfully"));
+            response.put("message", "Calendar disconnected successfully");
+            if (cleanup != null) {
+                response.put("cleanupJobId", cleanup.jobId());
+                response.put("cleanup", cleanup);
+            }
+            return ResponseEntity.ok(response);
 
         } catch (Exception ex) {
             log.error("Error unlinking calendar", ex);
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Failed to disconnect calendar: " + ex.getMessage()));
+            response.put("message", "Failed to disconnect calendar: " + ex.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/unlink/{jobId}")
+    public ResponseEntity<CalendarCleanupStatusDto> getUnlinkCleanupStatus(@AuthenticationPrincipal UserDetails userDetails,
+                                                                           @PathVariable UUID jobId) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        CalendarCleanupStatusDto status = calendarService.getCleanupStatus(user, jobId);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(status);
     }
 }
\ No newline at end of file
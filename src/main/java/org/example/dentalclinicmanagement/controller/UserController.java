@@ -1,6 +1,7 @@
 package org.example.dentalclinicmanagement.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.dentalclinicmanagement.dto.DentistProfileDto;
 import org.example.dentalclinicmanagement.dto.MinimalUserRegistrationDTO;
 import org.example.dentalclinicmanagement.dto.UserDto;
+import org.example.dentalclinicmanagement.dto.UserSliceDto;
 import org.example.dentalclinicmanagement.dto.request.ChangePasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.UpdateUserProfileRequest;
 import org.example.dentalclinicmanagement.dto.response.MessageResponse;
@@ -94,6 +96,20 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsersWithFilters(page, size, role, search));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserSliceDto> scrollUsers(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") @Min(1) @Max(200) int size,
+            @RequestParam(name = "search", required = false) String search,
+            @RequestParam(name = "role", required = false) Role role,
+            @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal) {
+
+        log.debug("Admin users scroll request: size={}, role={}, search='{}'", size, role, search);
+
+        return ResponseEntity.ok(userService.scrollUsers(cursor, size, role, search, includeTotal));
+    }
+
     @PatchMapping("/profile/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserDto> updateUser(
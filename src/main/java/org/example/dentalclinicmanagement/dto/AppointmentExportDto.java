@@ -0,0 +1,15 @@
+package org.example.dentalclinicmanagement.dto;
+
+import java.time.LocalDateTime;
+
+public record AppointmentExportDto(
+        Long id,
+        LocalDateTime appointmentTime,
+        Integer durationMinutes,
+        String dentistName,
+        String dentistEmail,
+        String patientName,
+        String patientPhone,
+        String patientEmail,
+        String comment) {
+}
@@ -0,0 +1,13 @@
+package org.example.dentalclinicmanagement.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record CalendarCleanupStatusDto(UUID jobId,
+                                       String state,
+                                       int total,
+                                       int removed,
+                                       int failed,
+                                       Instant startedAt,
+                                       Instant finishedAt) {
+}
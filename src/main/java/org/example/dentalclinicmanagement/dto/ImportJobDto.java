@@ -0,0 +1,18 @@
+package org.example.dentalclinicmanagement.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ImportJobDto(UUID jobId,
+                           String fileName,
+                           String mode,
+                           String status,
+                           long rowsProcessed,
+                           int created,
+                           int updated,
+                           int skipped,
+                           String error,
+                           Instant createdAt,
+                           Instant startedAt,
+                           Instant finishedAt) {
+}
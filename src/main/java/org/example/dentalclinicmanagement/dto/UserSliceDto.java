@@ -0,0 +1,13 @@
+package org.example.dentalclinicmanagement.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of the admin user list. {@code nextCursor} is opaque and {@code null} on the
+ * last slice; {@code approximateTotal} is only filled when requested and cheap to estimate.
+ */
+public record UserSliceDto(List<UserDto> content,
+                           String nextCursor,
+                           boolean hasNext,
+                           Long approximateTotal) {
+}
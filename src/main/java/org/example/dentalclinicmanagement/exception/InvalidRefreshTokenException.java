@@ -0,0 +1,7 @@
+package org.example.dentalclinicmanagement.exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
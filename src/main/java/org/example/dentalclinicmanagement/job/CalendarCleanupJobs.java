@@ -0,0 +1,42 @@
+package org.example.dentalclinicmanagement.job;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs removal of remote Google Calendar events after an unlink in the background. Job state lives in
+ * {@code calendar_cleanup_jobs}, so work cut short by {@link #shutdown()} is picked up again on startup.
+ */
+@Component
+public class CalendarCleanupJobs {
+
+    @Value("${calendar.cleanup.threads:2}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    private void initialize() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "calendar-cleanup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void submit(Runnable job) {
+        executor.execute(job);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.dentalclinicmanagement.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.repository.GoogleCredentialRepository;
+import org.example.dentalclinicmanagement.service.CalendarService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically pulls Google Calendar changes for every linked user using per-user sync tokens,
+ * so remote deletions and moves are reflected on {@code AppointmentCalendarLink}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CalendarSyncJob {
+
+    private final GoogleCredentialRepository credentialRepository;
+    private final CalendarService calendarService;
+
+    @Scheduled(fixedDelayString = "${calendar.sync.interval-ms:300000}",
+            initialDelayString = "${calendar.sync.initial-delay-ms:60000}")
+    public void pullRemoteChanges() {
+        List<Long> userIds = credentialRepository.findAllUserIds();
+        log.debug("Pulling Google Calendar changes for {} linked users", userIds.size());
+
+        for (Long userId : userIds) {
+            try {
+                calendarService.pullRemoteChanges(userId);
+            } catch (Exception ex) {
+                log.warn("Calendar sync failed for user {}: {}", userId, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.dentalclinicmanagement.job;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.model.ImportJobStatus;
+import org.example.dentalclinicmanagement.repository.ImportJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs user import jobs off the request thread. Jobs that were running when the application
+ * stopped are marked failed on startup so an admin can resume them from their last checkpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportJobRunner {
+
+    private final ImportJobRepository importJobRepository;
+
+    @Value("${import.threads:1}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    private void initialize() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int interrupted = importJobRepository.failRunning(ImportJobStatus.RUNNING, ImportJobStatus.FAILED,
+                "Interrupted by application restart", Instant.now());
+        if (interrupted > 0) {
+            log.warn("Marked {} interrupted import jobs as failed; they can be resumed", interrupted);
+        }
+    }
+
+    public void submit(Runnable job) {
+        executor.execute(job);
+    }
+}
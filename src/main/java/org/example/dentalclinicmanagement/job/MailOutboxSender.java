@@ -0,0 +1,168 @@
+package org.example.dentalclinicmanagement.job;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.model.OutboundEmail;
+import org.example.dentalclinicmanagement.model.OutboundEmailStatus;
+import org.example.dentalclinicmanagement.repository.OutboundEmailRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers queued mails. Each run sends the whole batch through one {@code JavaMailSender.send(MimeMessage...)}
+ * call, which opens and authenticates a single SMTP transport for all of them. Failed messages are retried
+ * with exponential backoff and moved to {@link OutboundEmailStatus#DEAD} after the last attempt. The body is
+ * dropped as soon as a message is sent or dead so reset links do not outlive their delivery.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailOutboxSender {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+
+    @Value("${spring.mail.username:}")
+    private String from;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.retry-base-delay-ms:30000}")
+    private long retryBaseDelayMs;
+
+    @Value("${mail.outbox.sent-retention-days:7}")
+    private int sentRetentionDays;
+
+    @Value("${mail.outbox.dead-retention-days:30}")
+    private int deadRetentionDays;
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    @Transactional
+    public void sendDueMessages() {
+        List<OutboundEmail> batch = outboundEmailRepository.lockDueBatch(Instant.now(), batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<MimeMessage, OutboundEmail> messages = new IdentityHashMap<>();
+        for (OutboundEmail email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException ex) {
+                markFailed(email, ex);
+            }
+        }
+
+        Map<Object, Exception> failures = send(messages);
+        Instant now = Instant.now();
+        int sent = 0;
+        for (Map.Entry<MimeMessage, OutboundEmail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                markFailed(entry.getValue(), failure);
+            } else {
+                entry.getValue().setStatus(OutboundEmailStatus.SENT);
+                entry.getValue().setSentAt(now);
+                entry.getValue().setLastError(null);
+                entry.getValue().setBody(null);
+                sent++;
+            }
+        }
+        outboundEmailRepository.saveAll(batch);
+
+        log.info("Mail outbox run: {} sent, {} failed", sent, batch.size() - sent);
+    }
+
+    @Scheduled(cron = "${mail.outbox.cleanup-cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeSentMessages() {
+        Instant now = Instant.now();
+        int removed = outboundEmailRepository.deleteByStatusBefore(OutboundEmailStatus.SENT,
+                now.minus(Duration.ofDays(sentRetentionDays)));
+        int dead = outboundEmailRepository.deleteByStatusCreatedBefore(OutboundEmailStatus.DEAD,
+                now.minus(Duration.ofDays(deadRetentionDays)));
+        log.info("Removed {} delivered and {} dead mails from the outbox", removed, dead);
+    }
+
+    private Map<Object, Exception> send(Map<MimeMessage, OutboundEmail> messages) {
+        if (messages.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            return Map.of();
+        } catch (MailSendException ex) {
+            if (!ex.getFailedMessages().isEmpty()) {
+                return ex.getFailedMessages();
+            }
+            return failAll(messages, ex);
+        } catch (MailException ex) {
+            log.warn("SMTP delivery failed for the whole batch: {}", ex.getMessage());
+            return failAll(messages, ex);
+        }
+    }
+
+    private Map<Object, Exception> failAll(Map<MimeMessage, OutboundEmail> messages, Exception ex) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, ex));
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        if (!from.isBlank()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        return message;
+    }
+
+    private void markFailed(OutboundEmail email, Exception ex) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(ex.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(OutboundEmailStatus.DEAD);
+            email.setBody(null);
+            log.error("Giving up on mail {} to {} after {} attempts: {}",
+                    email.getId(), email.getRecipient(), attempts, ex.getMessage());
+        } else {
+            long delayMs = retryBaseDelayMs << Math.min(attempts - 1, 16);
+            email.setNextAttemptAt(Instant.now().plusMillis(delayMs));
+            log.warn("Mail {} to {} failed (attempt {}), retrying in {} ms: {}",
+                    email.getId(), email.getRecipient(), attempts, delayMs, ex.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.dentalclinicmanagement.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.repository.PasswordResetTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Deletes expired and used password reset tokens in small batches, each in its own transaction,
+ * so the table and its token index stay small without long-running deletes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordResetTokenSweeper {
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Value("${password-reset.sweep.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${password-reset.sweep.cron:0 15 * * * *}")
+    public void sweep() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = passwordResetTokenRepository.deleteExpiredOrUsedBatch(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Removed {} expired or used password reset tokens", total);
+        }
+    }
+}
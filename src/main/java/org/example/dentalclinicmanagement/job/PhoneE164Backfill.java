@@ -0,0 +1,110 @@
+package org.example.dentalclinicmanagement.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.util.PhoneUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off fill of {@code users.phone_e164} for rows written before the column existed. Walks the
+ * table by primary key in batches, each in its own transaction, so it never holds long locks, and
+ * records itself in {@code data_migrations} when done so later startups skip it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PhoneE164Backfill {
+
+    private static final String MIGRATION = "phone_e164_backfill";
+    private static final int MAX_LOGGED_DUPLICATES = 100;
+
+    private static final String IS_DONE_SQL = "SELECT EXISTS (SELECT 1 FROM data_migrations WHERE name = ?)";
+
+    private static final String MARK_DONE_SQL =
+            "INSERT INTO data_migrations (name, completed_at) VALUES (?, now()) ON CONFLICT (name) DO NOTHING";
+
+    private static final String SELECT_BATCH_SQL =
+            "SELECT user_id, phone_number FROM users " +
+            "WHERE phone_e164 IS NULL AND phone_number IS NOT NULL AND user_id > ? " +
+            "ORDER BY user_id LIMIT ?";
+
+    // a number already claimed by another user is left unset instead of failing the whole batch;
+    // User only re-derives phone_e164 when the number changes, so such rows stay writable
+    private static final String UPDATE_SQL =
+            "UPDATE users SET phone_e164 = ? WHERE user_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM users WHERE phone_e164 = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${phone-backfill.batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_DONE_SQL, Boolean.class, MIGRATION))) {
+            return;
+        }
+
+        long lastId = 0;
+        int updated = 0;
+        int invalid = 0;
+        List<Long> duplicates = new ArrayList<>();
+
+        while (true) {
+            List<PhoneRow> rows = jdbcTemplate.query(SELECT_BATCH_SQL,
+                    (rs, rowNum) -> new PhoneRow(rs.getLong("user_id"), rs.getString("phone_number")),
+                    lastId, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            lastId = rows.get(rows.size() - 1).id();
+
+            List<PhoneRow> parsed = new ArrayList<>(rows.size());
+            List<Object[]> args = new ArrayList<>(rows.size());
+            for (PhoneRow row : rows) {
+                String e164 = PhoneUtil.toE164(row.phone());
+                if (e164 == null) {
+                    invalid++;
+                } else {
+                    parsed.add(row);
+                    args.add(new Object[]{e164, row.id(), e164});
+                }
+            }
+            if (args.isEmpty()) {
+                continue;
+            }
+
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, args));
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    updated++;
+                } else {
+                    duplicates.add(parsed.get(i).id());
+                }
+            }
+        }
+
+        jdbcTemplate.update(MARK_DONE_SQL, MIGRATION);
+        log.info("Backfilled E.164 phone numbers for {} users", updated);
+        if (invalid > 0) {
+            log.warn("Left phone_e164 unset for {} users with unparseable phone numbers", invalid);
+        }
+        if (!duplicates.isEmpty()) {
+            log.warn("Left phone_e164 unset for {} users whose number another user already has; merge or fix "
+                            + "them by hand (user ids: {})", duplicates.size(),
+                    duplicates.subList(0, Math.min(duplicates.size(), MAX_LOGGED_DUPLICATES)));
+        }
+    }
+
+    private record PhoneRow(long id, String phone) {
+    }
+}
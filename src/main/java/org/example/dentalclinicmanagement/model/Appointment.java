@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 @Entity
 @Data
 @NoArgsConstructor
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_time", columnList = "appointment_time")
+})
 public class Appointment {
 
     @Id
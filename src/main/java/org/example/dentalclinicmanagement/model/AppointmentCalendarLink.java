@@ -18,5 +18,10 @@ public class AppointmentCalendarLink {
     @Column(nullable = false)
     private String googleEventId;
 
+    private String etag;
+
     private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private CalendarLinkState state = CalendarLinkState.SYNCED;
 }
@@ -0,0 +1,93 @@
+package org.example.dentalclinicmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Removal of a user's Google events after an unlink. It is saved in the same transaction that deletes
+ * the local links, and each event id stays in {@code calendar_cleanup_events} until Google confirms its
+ * deletion, so a restart resumes the job instead of leaving the events behind. The Google tokens are
+ * copied from the deleted credential and cleared when the job finishes.
+ */
+@Entity
+@Table(name = "calendar_cleanup_jobs")
+@Data
+@NoArgsConstructor
+public class CalendarCleanupJob {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private CalendarCleanupStatus status = CalendarCleanupStatus.PENDING;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Column(nullable = false)
+    private int removed;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @ToString.Exclude
+    @Column(name = "refresh_token", length = 4000)
+    private String refreshToken;
+
+    @ToString.Exclude
+    @Column(name = "access_token", length = 4000)
+    private String accessToken;
+
+    @Column(name = "access_token_expiry")
+    private Instant accessTokenExpiry;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ElementCollection
+    @CollectionTable(name = "calendar_cleanup_events", joinColumns = @JoinColumn(name = "job_id"))
+    @Column(name = "google_event_id", nullable = false)
+    private List<String> pendingEventIds = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public CalendarCleanupJob(UUID id, GoogleCredential credential, Long userId, List<String> eventIds) {
+        this.id = id;
+        this.userId = userId;
+        this.refreshToken = credential.getRefreshToken();
+        this.accessToken = credential.getAccessToken();
+        this.accessTokenExpiry = credential.getAccessTokenExpiry();
+        this.pendingEventIds = new ArrayList<>(eventIds);
+        this.total = eventIds.size();
+        this.createdAt = Instant.now();
+    }
+
+    /**
+     * Credential for the Calendar client; not persisted.
+     */
+    public GoogleCredential toCredential() {
+        GoogleCredential credential = new GoogleCredential();
+        credential.setRefreshToken(refreshToken);
+        credential.setAccessToken(accessToken);
+        credential.setAccessTokenExpiry(accessTokenExpiry);
+        return credential;
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.dentalclinicmanagement.model;
+
+public enum CalendarCleanupStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    COMPLETED_WITH_ERRORS
+}
@@ -0,0 +1,5 @@
+package org.example.dentalclinicmanagement.model;
+
+public enum CalendarLinkState {
+    SYNCED, REMOTE_MODIFIED, REMOTE_DELETED
+}
@@ -23,4 +23,8 @@ public class GoogleCredential {
     @Column(length = 4000)
     private String accessToken;
     private Instant accessTokenExpiry;
+
+    @Column(length = 512)
+    private String syncToken;
+    private Instant lastSyncedAt;
 }
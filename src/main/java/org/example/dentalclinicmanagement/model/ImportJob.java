@@ -0,0 +1,72 @@
+package org.example.dentalclinicmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A user import running in the background. Counters and {@code rowsProcessed} are updated in the
+ * same transaction as each written chunk, so they always describe committed data and a failed job
+ * resumes right after its last chunk.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+public class ImportJob {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "stored_path", nullable = false, length = 1024)
+    private String storedPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportJobStatus status = ImportJobStatus.QUEUED;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "varchar(16) default 'INCREMENTAL'")
+    private ImportMode mode = ImportMode.INCREMENTAL;
+
+    /**
+     * Data rows of the file (including skipped ones) covered by committed chunks.
+     */
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+
+    @Column(nullable = false)
+    private int created;
+
+    @Column(nullable = false)
+    private int updated;
+
+    @Column(nullable = false)
+    private int skipped;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public ImportJob(UUID id, String fileName, String storedPath, ImportMode mode) {
+        this.id = id;
+        this.fileName = fileName;
+        this.storedPath = storedPath;
+        this.mode = mode;
+        this.createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.dentalclinicmanagement.model;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,14 @@
+package org.example.dentalclinicmanagement.model;
+
+/**
+ * How an import job writes users.
+ * <ul>
+ *     <li>{@code INCREMENTAL} commits and checkpoints every chunk, so a failed job resumes where it stopped.</li>
+ *     <li>{@code BULK} COPYs the whole file into a staging table and merges it in one transaction; meant for
+ *     loading a new clinic's patient base, and a failed job is retried from the start.</li>
+ * </ul>
+ */
+public enum ImportMode {
+    INCREMENTAL,
+    BULK
+}
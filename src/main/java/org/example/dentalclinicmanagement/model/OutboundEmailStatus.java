@@ -0,0 +1,7 @@
+package org.example.dentalclinicmanagement.model;
+
+public enum OutboundEmailStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -8,6 +8,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_password_reset_token_expiry", columnList = "expiry_date"))
 @Data
 @NoArgsConstructor
 public class PasswordResetToken {
@@ -15,10 +16,13 @@ public class PasswordResetToken {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    /**
+     * SHA-256 of the token sent by email; the raw token is never stored.
+     */
+    @Column(name = "token_hash", unique = true, length = 32)
+    private byte[] tokenHash;
 
-    @Column(nullable = false)
+    @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
 
     private boolean used;
@@ -27,8 +31,8 @@ public class PasswordResetToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    public PasswordResetToken(String token, Instant expiryDate, User user) {
-        this.token = token;
+    public PasswordResetToken(byte[] tokenHash, Instant expiryDate, User user) {
+        this.tokenHash = tokenHash;
         this.expiryDate = expiryDate;
         this.user = user;
         this.used = false;
@@ -0,0 +1,44 @@
+package org.example.dentalclinicmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expiry", columnList = "expiry_date")
+})
+@Data
+@NoArgsConstructor
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "expiry_date", nullable = false)
+    private Instant expiryDate;
+
+    private boolean revoked;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    public RefreshToken(String tokenHash, UUID familyId, Instant expiryDate, User user) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.expiryDate = expiryDate;
+        this.user = user;
+        this.revoked = false;
+    }
+}
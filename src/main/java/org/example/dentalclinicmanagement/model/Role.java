@@ -1,20 +1,26 @@
 package org.example.dentalclinicmanagement.model;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Getter
-@RequiredArgsConstructor
 public enum Role {
-    ADMIN, MANAGER, DENTIST, USER;
+    ADMIN(true), MANAGER(true), DENTIST(true), USER(false);
 
-    public List<SimpleGrantedAuthority> getAuthorities() {
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + this.name()));
-        return authorities;
+    /**
+     * Whether the role may act on behalf of other users (book or cancel their appointments etc.).
+     */
+    private final boolean privileged;
+
+    /**
+     * Immutable and shared by every principal with this role, so building a principal does not allocate.
+     */
+    private final List<SimpleGrantedAuthority> authorities;
+
+    Role(boolean privileged) {
+        this.privileged = privileged;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + name()));
     }
-}
\ No newline at end of file
+}
@@ -4,16 +4,31 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.example.dentalclinicmanagement.util.PhoneUtil;
+import org.example.dentalclinicmanagement.util.SearchTextUtil;
+
+import java.util.Objects;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_email_id", columnList = "email, user_id"),
+        @Index(name = "idx_users_role_email_id", columnList = "role, email, user_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    /**
+     * Stored instead of a hash for accounts created without a password (imports, minimal
+     * registration, OAuth2). It never matches any input; the password is set via the reset flow.
+     */
+    public static final String UNSET_PASSWORD = "";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "user_id")
@@ -34,6 +49,22 @@ public class User {
     @Column(name = "phone_number", unique = true)
     private String phoneNumber;
 
+    /**
+     * {@link #phoneNumber} in E.164 form (see PhoneUtil); every phone lookup goes through its unique index.
+     * Null when the number cannot be normalized.
+     */
+    @Column(name = "phone_e164", length = 16, unique = true)
+    private String phoneE164;
+
+    /**
+     * phoneNumber as loaded from the database. phoneE164 is only re-derived when the number changes,
+     * so a row the backfill left unset because another user holds the same number stays writable.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String loadedPhoneNumber;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "role", nullable = false)
     private Role role;
@@ -47,4 +78,32 @@ public class User {
 
     @Column(name = "two_factor_secret")
     private String twoFactorSecret;
+
+    @Column(name = "security_version", nullable = false, columnDefinition = "integer default 0")
+    private int securityVersion;
+
+    /**
+     * Lower-cased "first last email", backed by a trigram index (see schema.sql) for admin search.
+     */
+    @Column(name = "search_text", length = 1024)
+    private String searchText;
+
+    @PostLoad
+    void rememberLoadedPhone() {
+        loadedPhoneNumber = phoneNumber;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void refreshDerivedColumns() {
+        searchText = SearchTextUtil.forUser(firstName, lastName, email);
+        if (!Objects.equals(phoneNumber, loadedPhoneNumber)) {
+            phoneE164 = PhoneUtil.toE164(phoneNumber);
+            loadedPhoneNumber = phoneNumber;
+        }
+    }
+
+    public boolean isPasswordSet() {
+        return password != null && !UNSET_PASSWORD.equals(password);
+    }
 }
@@ -2,11 +2,23 @@ package org.example.dentalclinicmanagement.repository;
 
 import org.example.dentalclinicmanagement.model.AppointmentCalendarLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AppointmentCalendarLinkRepository extends JpaRepository<AppointmentCalendarLink, Long> {
     Optional<AppointmentCalendarLink> findByAppointmentId(Long id);
 
-    void deleteAllByUserId(Long id);
+    List<AppointmentCalendarLink> findByUserIdAndGoogleEventIdIn(Long userId, Collection<String> googleEventIds);
+
+    @Query("SELECT l.googleEventId FROM AppointmentCalendarLink l WHERE l.userId = :userId")
+    List<String> findGoogleEventIdsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentCalendarLink l WHERE l.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
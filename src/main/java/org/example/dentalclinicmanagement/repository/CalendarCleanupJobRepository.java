@@ -0,0 +1,62 @@
+package org.example.dentalclinicmanagement.repository;
+
+import org.example.dentalclinicmanagement.model.CalendarCleanupJob;
+import org.example.dentalclinicmanagement.model.CalendarCleanupStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface CalendarCleanupJobRepository extends JpaRepository<CalendarCleanupJob, UUID> {
+
+    /**
+     * Moves a job from PENDING to RUNNING, so a job is never run twice at once.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CalendarCleanupJob j SET j.status = :running, j.startedAt = :now " +
+            "WHERE j.id = :id AND j.status = :pending")
+    int claim(@Param("id") UUID id,
+              @Param("pending") CalendarCleanupStatus pending,
+              @Param("running") CalendarCleanupStatus running,
+              @Param("now") Instant now);
+
+    @Query(value = "SELECT google_event_id FROM calendar_cleanup_events WHERE job_id = :jobId", nativeQuery = true)
+    List<String> findPendingEventIds(@Param("jobId") UUID jobId);
+
+    @Modifying
+    @Query(value = "DELETE FROM calendar_cleanup_events WHERE job_id = :jobId AND google_event_id IN (:eventIds)",
+            nativeQuery = true)
+    int deletePendingEvents(@Param("jobId") UUID jobId, @Param("eventIds") Collection<String> eventIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CalendarCleanupJob j SET j.removed = j.removed + :removed, j.failed = j.failed + :failed " +
+            "WHERE j.id = :id")
+    int recordProgress(@Param("id") UUID id, @Param("removed") int removed, @Param("failed") int failed);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CalendarCleanupJob j SET j.status = :status, j.finishedAt = :now, " +
+            "j.refreshToken = null, j.accessToken = null WHERE j.id = :id")
+    int finish(@Param("id") UUID id, @Param("status") CalendarCleanupStatus status, @Param("now") Instant now);
+
+    /**
+     * Puts jobs interrupted by a shutdown back in the queue. Their failed counter is reset because
+     * every event id still pending is attempted again.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CalendarCleanupJob j SET j.status = :pending, j.failed = 0 WHERE j.status = :running")
+    int requeueRunning(@Param("running") CalendarCleanupStatus running,
+                       @Param("pending") CalendarCleanupStatus pending);
+
+    @Query("SELECT j.id FROM CalendarCleanupJob j WHERE j.status = :status")
+    List<UUID> findIdsByStatus(@Param("status") CalendarCleanupStatus status);
+}
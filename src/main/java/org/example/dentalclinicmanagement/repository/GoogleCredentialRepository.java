@@ -3,7 +3,9 @@ package org.example.dentalclinicmanagement.repository;
 import org.example.dentalclinicmanagement.model.GoogleCredential;
 import org.example.dentalclinicmanagement.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface GoogleCredentialRepository extends JpaRepository<GoogleCredential, Long> {
@@ -11,4 +13,6 @@ public interface GoogleCredentialRepository extends JpaRepository<GoogleCredenti
 
     Optional<GoogleCredential> findByUser_Id(Long userId);
 
+    @Query("SELECT c.user.id FROM GoogleCredential c")
+    List<Long> findAllUserIds();
 }
\ No newline at end of file
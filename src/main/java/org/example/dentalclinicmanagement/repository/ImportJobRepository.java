@@ -0,0 +1,53 @@
+package org.example.dentalclinicmanagement.repository;
+
+import org.example.dentalclinicmanagement.model.ImportJob;
+import org.example.dentalclinicmanagement.model.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+
+    /**
+     * Moves a job to RUNNING only from one of {@code from}, so a job is never run twice at once.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :running, j.startedAt = :now, j.finishedAt = null, j.error = null " +
+            "WHERE j.id = :id AND j.status IN :from")
+    int claim(@Param("id") UUID id,
+              @Param("from") Collection<ImportJobStatus> from,
+              @Param("running") ImportJobStatus running,
+              @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.rowsProcessed = :rowsProcessed, j.created = j.created + :created, " +
+            "j.updated = j.updated + :updated, j.skipped = j.skipped + :skipped WHERE j.id = :id")
+    int recordProgress(@Param("id") UUID id,
+                       @Param("rowsProcessed") long rowsProcessed,
+                       @Param("created") int created,
+                       @Param("updated") int updated,
+                       @Param("skipped") int skipped);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :status, j.error = :error, j.finishedAt = :now WHERE j.id = :id")
+    int finish(@Param("id") UUID id,
+               @Param("status") ImportJobStatus status,
+               @Param("error") String error,
+               @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :failed, j.error = :error, j.finishedAt = :now WHERE j.status = :running")
+    int failRunning(@Param("running") ImportJobStatus running,
+                    @Param("failed") ImportJobStatus failed,
+                    @Param("error") String error,
+                    @Param("now") Instant now);
+}
@@ -0,0 +1,29 @@
+package org.example.dentalclinicmanagement.repository;
+
+import org.example.dentalclinicmanagement.model.OutboundEmail;
+import org.example.dentalclinicmanagement.model.OutboundEmailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    /**
+     * Locks due messages so that several application instances never send the same mail twice.
+     */
+    @Query(value = "SELECT * FROM outbound_email WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboundEmail> lockDueBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = :status AND e.sentAt < :threshold")
+    int deleteByStatusBefore(@Param("status") OutboundEmailStatus status, @Param("threshold") Instant threshold);
+
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = :status AND e.createdAt < :threshold")
+    int deleteByStatusCreatedBefore(@Param("status") OutboundEmailStatus status, @Param("threshold") Instant threshold);
+}
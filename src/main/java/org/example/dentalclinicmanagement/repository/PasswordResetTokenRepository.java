@@ -2,12 +2,26 @@ package org.example.dentalclinicmanagement.repository;
 
 import org.example.dentalclinicmanagement.model.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, UUID> {
 
-    Optional<PasswordResetToken> findByToken(String token);
-}
\ No newline at end of file
+    Optional<PasswordResetToken> findByTokenHash(byte[] tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_token WHERE id IN (" +
+            "SELECT id FROM password_reset_token " +
+            "WHERE expiry_date < :now OR used = true OR token_hash IS NULL " +
+            "LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredOrUsedBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
@@ -3,6 +3,7 @@ package org.example.dentalclinicmanagement.repository;
 import org.example.dentalclinicmanagement.model.Role;
 import org.example.dentalclinicmanagement.model.User;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -18,22 +19,85 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     int countByRole(Role role);
 
-    @Query("SELECT u FROM User u WHERE " +
-            "(:search IS NULL OR :search = '' OR " +
-            " UPPER(u.firstName) LIKE UPPER(CONCAT('%', :search, '%')) OR " +
-            " UPPER(u.lastName) LIKE UPPER(CONCAT('%', :search, '%')) OR " +
-            " UPPER(CONCAT(u.firstName, ' ', u.lastName)) LIKE UPPER(CONCAT('%', :search, '%')) OR " +
-            " UPPER(u.email) LIKE UPPER(CONCAT('%', :search, '%'))) AND " +
-            "(:role IS NULL OR u.role = :role)")
-    Page<User> findUsersWithFilters(
+    /**
+     * Substring match on the normalized search column, ranked by trigram word similarity.
+     * {@code :search} must be normalized and {@code :pattern} LIKE-escaped; the GIN trigram
+     * index serves the LIKE for patterns of three or more characters.
+     */
+    String SEARCH_QUERY = "SELECT u.* FROM users u " +
+            "WHERE u.search_text LIKE CONCAT('%', :pattern, '%') " +
+            "AND (CAST(:role AS varchar) IS NULL OR u.role = CAST(:role AS varchar)) " +
+            "ORDER BY word_similarity(:search, u.search_text) DESC, u.email";
+
+    String SEARCH_COUNT_QUERY = "SELECT count(*) FROM users u " +
+            "WHERE u.search_text LIKE CONCAT('%', :pattern, '%') " +
+            "AND (CAST(:role AS varchar) IS NULL OR u.role = CAST(:role AS varchar))";
+
+    @Query(value = SEARCH_QUERY, countQuery = SEARCH_COUNT_QUERY, nativeQuery = true)
+    Page<User> searchUsers(
             @Param("search") String search,
+            @Param("pattern") String pattern,
+            @Param("role") String role,
+            Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role)")
+    Page<User> findUsersWithFilters(
             @Param("role") Role role,
             Pageable pageable);
 
-    Optional<User> findByPhoneNumber(String phoneNumber);
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role) ORDER BY u.email, u.id")
+    List<User> findFirstSlice(@Param("role") Role role, Limit limit);
+
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role) " +
+            "AND (u.email, u.id) > (:email, :id) ORDER BY u.email, u.id")
+    List<User> findSliceAfter(
+            @Param("role") Role role,
+            @Param("email") String email,
+            @Param("id") Long id,
+            Limit limit);
+
+    /**
+     * Keyset variant of {@link #SEARCH_QUERY}: same filter, ordered by (email, id) so deep
+     * slices cost the same as the first one. A {@code null} cursor email starts from the top.
+     */
+    @Query(value = "SELECT u.* FROM users u " +
+            "WHERE u.search_text LIKE CONCAT('%', :pattern, '%') " +
+            "AND (CAST(:role AS varchar) IS NULL OR u.role = CAST(:role AS varchar)) " +
+            "AND (CAST(:email AS varchar) IS NULL OR (u.email, u.user_id) > (CAST(:email AS varchar), CAST(:id AS bigint))) " +
+            "ORDER BY u.email, u.user_id LIMIT :limit", nativeQuery = true)
+    List<User> searchSlice(
+            @Param("pattern") String pattern,
+            @Param("role") String role,
+            @Param("email") String email,
+            @Param("id") Long id,
+            @Param("limit") int limit);
+
+    /**
+     * Planner estimate of the table size from the last ANALYZE; -1 if the table was never analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = CAST('users' AS regclass)",
+            nativeQuery = true)
+    long estimateRowCount();
+
+    /**
+     * Planner estimate of the users with a role: table size times the role's frequency in the
+     * column statistics. {@code null} when the role is not among the most common values (so it
+     * is rare) or the table was never analyzed.
+     */
+    @Query(value = "SELECT CAST(c.reltuples * s.most_common_freqs[" +
+            "array_position(CAST(CAST(s.most_common_vals AS text) AS text[]), :role)] AS bigint) " +
+            "FROM pg_class c JOIN pg_stats s ON s.schemaname = current_schema() " +
+            "AND s.tablename = 'users' AND s.attname = 'role' " +
+            "WHERE c.oid = CAST('users' AS regclass) AND c.reltuples >= 0", nativeQuery = true)
+    Long estimateRowCountByRole(@Param("role") String role);
+
+    Optional<User> findByPhoneE164(String phoneE164);
 
     List<User> findByRole(Role role);
 
-    boolean existsByPhoneNumber(String phone);
+    boolean existsByPhoneE164(String phoneE164);
+
+    @Query("SELECT u.securityVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findSecurityVersionById(@Param("id") Long id);
 }
  
\ No newline at end of file
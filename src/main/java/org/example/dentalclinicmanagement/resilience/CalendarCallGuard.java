@@ -0,0 +1,154 @@
+package org.example.dentalclinicmanagement.resilience;
+
+import com.google.api.client.http.HttpResponseException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedThreadPoolBulkheadMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs Google Calendar API calls on a dedicated, bounded thread pool behind a circuit breaker,
+ * so a degraded Google endpoint fails fast instead of tying up request threads.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CalendarCallGuard {
+
+    public static final String NAME = "googleCalendar";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${calendar.resilience.max-concurrent-calls:8}")
+    private int maxConcurrentCalls;
+
+    @Value("${calendar.resilience.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${calendar.resilience.call-timeout-ms:5000}")
+    private long callTimeoutMs;
+
+    @Value("${calendar.resilience.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${calendar.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${calendar.resilience.minimum-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${calendar.resilience.open-state-ms:30000}")
+    private long openStateMs;
+
+    @Value("${calendar.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private CircuitBreaker circuitBreaker;
+    private ThreadPoolBulkhead bulkhead;
+
+    @PostConstruct
+    private void initialize() {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(Duration.ofMillis(openStateMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .recordException(CalendarCallGuard::isRemoteFailure)
+                .build();
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig);
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(NAME);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Google Calendar circuit breaker: {}", event.getStateTransition()));
+
+        ThreadPoolBulkheadConfig bulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(maxConcurrentCalls)
+                .coreThreadPoolSize(maxConcurrentCalls)
+                .queueCapacity(queueCapacity)
+                .build();
+        ThreadPoolBulkheadRegistry bulkheadRegistry = ThreadPoolBulkheadRegistry.of(bulkheadConfig);
+        bulkhead = bulkheadRegistry.bulkhead(NAME);
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedThreadPoolBulkheadMetrics.ofThreadPoolBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    private void shutdown() throws Exception {
+        bulkhead.close();
+    }
+
+    /**
+     * Executes a remote call through the bulkhead and circuit breaker.
+     *
+     * @param operation short operation name used as a metrics tag, e.g. {@code "patch"}
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException if the circuit is open
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException if the pool and its queue are full
+     */
+    public <T> T execute(String operation, Callable<T> call) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return circuitBreaker.executeCallable(() -> await(bulkhead.executeCallable(call).toCompletableFuture()));
+        } catch (Exception ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("calendar.client.requests")
+                    .description("Google Calendar API call latency")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw ex;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw ex;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        }
+    }
+
+    private static boolean isRemoteFailure(Throwable ex) {
+        if (ex instanceof HttpResponseException response) {
+            int status = response.getStatusCode();
+            return status >= 500 || status == 429;
+        }
+        return ex instanceof IOException || ex instanceof TimeoutException;
+    }
+}
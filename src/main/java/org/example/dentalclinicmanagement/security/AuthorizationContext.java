@@ -0,0 +1,32 @@
+package org.example.dentalclinicmanagement.security;
+
+import org.example.dentalclinicmanagement.model.Role;
+import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
+
+/**
+ * Authorization facts of the current request, resolved once by {@code AuthTokenFilter}
+ * so permission checks in services are plain field reads.
+ */
+public record AuthorizationContext(Long userId, Role role, boolean privileged) {
+
+    private static final ThreadLocal<AuthorizationContext> CURRENT = new ThreadLocal<>();
+
+    public static AuthorizationContext of(UserDetailsImpl principal) {
+        return new AuthorizationContext(principal.getId(), principal.getRole(), principal.getRole().isPrivileged());
+    }
+
+    public static void set(AuthorizationContext context) {
+        CURRENT.set(context);
+    }
+
+    /**
+     * @return context of the request being served, or {@code null} outside a JWT-authenticated request
+     */
+    public static AuthorizationContext current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
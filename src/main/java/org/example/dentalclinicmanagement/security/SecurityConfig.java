@@ -1,5 +1,6 @@
 package org.example.dentalclinicmanagement.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.example.dentalclinicmanagement.security.jwt.AuthEntryPointJwt;
 import org.example.dentalclinicmanagement.security.jwt.AuthTokenFilter;
@@ -7,6 +8,7 @@ import org.example.dentalclinicmanagement.security.oauth2.CustomOAuth2Authorizat
 import org.example.dentalclinicmanagement.security.oauth2.OAuth2AuthenticationFailureHandler;
 import org.example.dentalclinicmanagement.security.oauth2.OAuth2AuthenticationSuccessHandler;
 import org.example.dentalclinicmanagement.security.oauth2.OAuth2UserServiceImpl;
+import org.example.dentalclinicmanagement.security.ratelimit.AuthRateLimitFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,10 +41,20 @@ public class SecurityConfig {
     private final OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
     private final OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler;
     private final CustomOAuth2AuthorizationRequestResolver customAuthorizationRequestResolver;
+    private final AuthRateLimitFilter authRateLimitFilter;
 
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.password-hashing.timeout-ms:5000}")
+    private long passwordHashingTimeoutMs;
+
     @Bean
     public CorsConfigurationSource configurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -57,9 +69,10 @@ public class SecurityConfig {
         return source;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry,
+                passwordHashingThreads, passwordHashingQueueCapacity, passwordHashingTimeoutMs);
     }
 
     @Bean
@@ -103,6 +116,7 @@ public class SecurityConfig {
                 );
 
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(authRateLimitFilter, AuthTokenFilter.class);
 
         return http.build();
     }
@@ -1,17 +1,20 @@
 package org.example.dentalclinicmanagement.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.cache.SecurityVersionCache;
+import org.example.dentalclinicmanagement.security.AuthorizationContext;
+import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
 import org.example.dentalclinicmanagement.security.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,20 +30,33 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private SecurityVersionCache securityVersionCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
             if (jwt != null) {
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String email = jwtUtils.getEmailFromJwtToken(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null,
-                                    userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                Claims claims = jwtUtils.validateAndGetClaims(jwt);
+                if (claims != null && revocationList.isRevoked(claims.getId())) {
+                    log.debug("Revoked JWT token for request: {}", request.getRequestURI());
+                } else if (claims != null) {
+                    UserDetailsImpl userDetails = resolvePrincipal(claims);
+                    if (userDetails != null) {
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(userDetails, null,
+                                        userDetails.getAuthorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        AuthorizationContext.set(AuthorizationContext.of(userDetails));
+                    } else {
+                        log.debug("Outdated JWT token for request: {}", request.getRequestURI());
+                    }
                 } else {
                     log.debug("Invalid JWT token for request: {}", request.getRequestURI());
                 }
@@ -49,7 +65,22 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             log.error("Authentication error: {}", e.getMessage());
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            AuthorizationContext.clear();
+        }
+    }
+
+    private UserDetailsImpl resolvePrincipal(Claims claims) {
+        UserDetailsImpl principal = jwtUtils.getPrincipalFromClaims(claims);
+        if (principal == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (!securityVersionCache.isCurrent(principal.getId(), principal.getSecurityVersion())) {
+            return null;
+        }
+        return principal;
     }
 
     private String parseJwt(HttpServletRequest request) {
@@ -5,18 +5,25 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.model.Role;
 import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Slf4j
 @Component
 public class JwtUtils {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -27,22 +34,46 @@ public class JwtUtils {
     @Value("${jwt.issuer}")
     private String jwtIssuer;
 
-    private SecretKey key;
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private volatile SecretKey key;
+    private volatile JwtParser jwtParser;
+    private volatile VerifiedTokenCache verifiedTokens;
 
     @PostConstruct
     private void initializeKey() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .requireIssuer(jwtIssuer)
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheMaxSize);
+    }
+
+    /**
+     * Switches to a new signing secret. Tokens verified with the previous key are forgotten.
+     */
+    public synchronized void rotateSecret(String newSecret) {
+        this.jwtSecret = newSecret;
+        initializeKey();
+        log.info("JWT signing key rotated");
     }
 
     public String generateJwtToken(UserDetailsImpl userPrincipal) {
-        return generateTokenFromEmail(userPrincipal.getEmail());
+        return generateTokenFromEmail(userPrincipal.getEmail(), userPrincipal.getId(),
+                userPrincipal.getRole(), userPrincipal.getSecurityVersion());
     }
 
-    public String generateTokenFromEmail(String email) {
+    public String generateTokenFromEmail(String email, Long userId, Role role, int securityVersion) {
         Date now = new Date();
         return Jwts.builder()
                 .setIssuer(jwtIssuer)
                 .setSubject(email)
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLE, role.name())
+                .claim(CLAIM_SECURITY_VERSION, securityVersion)
                 .setIssuedAt(now)
                 .setExpiration(new Date(now.getTime() + jwtExpirationMs))
                 .signWith(key)
@@ -50,13 +81,47 @@ public class JwtUtils {
     }
 
     public String getEmailFromJwtToken(String token) {
-        return getJwtParser().parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    /**
+     * Builds the principal from verified claims without touching the database.
+     *
+     * @return principal, or {@code null} for tokens issued before identity claims were embedded
+     */
+    public UserDetailsImpl getPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer securityVersion = claims.get(CLAIM_SECURITY_VERSION, Integer.class);
+        if (userId == null || role == null || securityVersion == null) {
+            return null;
+        }
+        return UserDetailsImpl.fromClaims(userId, claims.getSubject(), Role.valueOf(role), securityVersion);
     }
 
     public boolean validateJwtToken(String authToken) {
+        return validateAndGetClaims(authToken) != null;
+    }
+
+    /**
+     * Verifies the signature and standard claims once and returns the token body.
+     *
+     * @return claims of a valid token, or {@code null} if the token is invalid
+     */
+    public Claims validateAndGetClaims(String authToken) {
+        if (!StringUtils.hasText(authToken)) {
+            log.error("JWT claims string is empty");
+            return null;
+        }
+        VerifiedTokenCache cache = verifiedTokens;
+        Claims cached = cache.get(authToken);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            getJwtParser().parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            cache.put(authToken, claims);
+            return claims;
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -68,13 +133,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
-    }
-
-    private JwtParser getJwtParser() {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .requireIssuer(jwtIssuer)
-                .build();
+        return null;
     }
-}
\ No newline at end of file
+}
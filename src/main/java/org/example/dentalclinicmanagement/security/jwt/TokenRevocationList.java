@@ -0,0 +1,166 @@
+package org.example.dentalclinicmanagement.security.jwt;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.model.RevokedToken;
+import org.example.dentalclinicmanagement.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory list of revoked access token ids ({@code jti}).
+ * A bloom filter answers the common "not revoked" case without touching the exact map;
+ * the map holds every revocation until the token would have expired anyway.
+ * New entries are written to {@code revoked_tokens} periodically and reloaded on startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Queue<RevokedToken> pending = new ConcurrentLinkedQueue<>();
+    private volatile BloomFilter bloomFilter;
+
+    @PostConstruct
+    private void initialize() {
+        bloomFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        List<RevokedToken> stored = revokedTokenRepository.findByExpiresAtAfter(Instant.now());
+        for (RevokedToken token : stored) {
+            add(token.getJti(), token.getExpiresAt().toEpochMilli());
+        }
+        log.info("Loaded {} revoked access tokens", stored.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        if (add(jti, expiresAt.toEpochMilli())) {
+            pending.add(new RevokedToken(jti, expiresAt));
+        }
+    }
+
+    /**
+     * Persists new revocations, drops expired ones and rebuilds the bloom filter
+     * so it does not fill up with entries that no longer matter.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.flush-interval-ms:30000}")
+    @Transactional
+    public void flush() {
+        List<RevokedToken> batch = new ArrayList<>();
+        RevokedToken next;
+        while ((next = pending.poll()) != null) {
+            batch.add(next);
+        }
+        if (!batch.isEmpty()) {
+            revokedTokenRepository.saveAll(batch);
+            log.debug("Persisted {} revoked access tokens", batch.size());
+        }
+
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            BloomFilter rebuilt = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+            // entries revoked while the filter was being rebuilt may only be in the old one
+            revoked.keySet().forEach(rebuilt::put);
+        }
+        revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+    }
+
+    private boolean add(String jti, long expiresAt) {
+        boolean added = revoked.put(jti, expiresAt) == null;
+        BloomFilter filter = bloomFilter;
+        filter.put(jti);
+        if (filter != bloomFilter) {
+            bloomFilter.put(jti);
+        }
+        return added;
+    }
+
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            int entries = Math.max(expectedEntries, 1);
+            long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 63);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        void put(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int index = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << (index & 63);
+                int word = index >>> 6;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int index = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(index >>> 6) & (1L << (index & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.dentalclinicmanagement.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.example.dentalclinicmanagement.util.TokenHashUtil;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already verified tokens keyed by their SHA-256 digest.
+ * Entries live until the token expires; when the cache is full, expired entries are
+ * dropped first and then arbitrary ones until there is room again.
+ */
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    Claims get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        String key = TokenHashUtil.sha256Hex(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        if (maxSize <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(TokenHashUtil.sha256Hex(token), new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        Iterator<String> keys = entries.keySet().iterator();
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -10,6 +10,7 @@ import org.example.dentalclinicmanagement.repository.UserRepository;
 import org.example.dentalclinicmanagement.security.jwt.JwtUtils;
 import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
 import org.example.dentalclinicmanagement.service.CalendarService;
+import org.example.dentalclinicmanagement.service.RefreshTokenService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.Authentication;
@@ -34,6 +35,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     private final UserRepository userRepository;
     private final CalendarService calendarService;
     private final OAuth2AuthorizedClientService authorizedClientService;
+    private final RefreshTokenService refreshTokenService;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
@@ -103,10 +105,14 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
 
         try {
             String jwt = jwtUtils.generateJwtToken(userDetails);
+            String refreshToken = refreshTokenService.createRefreshToken(userDetails.getId());
             log.info("JWT generated for user: {} (ID: {})", userDetails.getEmail(), userDetails.getId());
 
+            // tokens go in the fragment: browsers never send it to servers, so it stays out of
+            // access logs, proxies and Referer headers
             return UriComponentsBuilder.fromUriString(frontendUrl + OAUTH2_REDIRECT_PATH)
-                    .queryParam("token", URLEncoder.encode(jwt, StandardCharsets.UTF_8))
+                    .fragment("token=" + URLEncoder.encode(jwt, StandardCharsets.UTF_8)
+                            + "&refreshToken=" + URLEncoder.encode(refreshToken, StandardCharsets.UTF_8))
                     .build().toUriString();
 
         } catch (Exception e) {
@@ -160,7 +166,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
         newUser.setFirstName(firstName != null ? firstName : "");
         newUser.setLastName(lastName != null ? lastName : "");
         newUser.setEmail(email);
-        newUser.setPassword("");
+        newUser.setPassword(User.UNSET_PASSWORD);
         newUser.setRole(Role.USER);
 
         User savedUser = userRepository.save(newUser);
@@ -62,7 +62,7 @@ public class OAuth2UserServiceImpl extends DefaultOAuth2UserService {
         user.setFirstName(oAuth2UserInfo.getFirstName());
         user.setLastName(oAuth2UserInfo.getLastName());
         user.setEmail(oAuth2UserInfo.getEmail());
-        user.setPassword("");
+        user.setPassword(User.UNSET_PASSWORD);
         user.setRole(Role.USER);
 
         User savedUser = userRepository.save(user);
@@ -0,0 +1,162 @@
+package org.example.dentalclinicmanagement.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Limits sign-in, sign-up and forgot-password calls per client IP and per account (email in the body),
+ * so bursts are rejected before they reach BCrypt or the mail server.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/api/auth/sign-in",
+            "/api/auth/sign-up",
+            "/api/auth/forgot-password");
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.rate-limit.ip.refill-tokens:20}")
+    private int ipRefillTokens;
+
+    @Value("${security.rate-limit.ip.refill-period-ms:60000}")
+    private long ipRefillPeriodMs;
+
+    @Value("${security.rate-limit.account.capacity:5}")
+    private int accountCapacity;
+
+    @Value("${security.rate-limit.account.refill-tokens:5}")
+    private int accountRefillTokens;
+
+    @Value("${security.rate-limit.account.refill-period-ms:300000}")
+    private long accountRefillPeriodMs;
+
+    @Value("${security.rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    /**
+     * Auth payloads are tiny; anything larger is rejected before it is buffered in memory.
+     */
+    @Value("${security.rate-limit.max-body-bytes:16384}")
+    private int maxBodyBytes;
+
+    private TokenBucketRateLimiter ipLimiter;
+    private TokenBucketRateLimiter accountLimiter;
+
+    @PostConstruct
+    private void initialize() {
+        ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillTokens, ipRefillPeriodMs, maxTrackedKeys);
+        accountLimiter = new TokenBucketRateLimiter(accountCapacity, accountRefillTokens,
+                accountRefillPeriodMs, maxTrackedKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equalsIgnoreCase(request.getMethod())
+                || !LIMITED_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getServletPath();
+
+        long retryAfterMs = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (retryAfterMs > 0) {
+            reject(request, response, "ip", path, retryAfterMs);
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest;
+        try {
+            cachedRequest = new CachedBodyHttpServletRequest(request, maxBodyBytes);
+        } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+            log.warn("Rejected oversized body for {} from {}", path, request.getRemoteAddr());
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large.", path);
+            return;
+        }
+        String email = extractEmail(cachedRequest.getBody());
+        if (email != null) {
+            retryAfterMs = accountLimiter.tryAcquire(path + "|" + email);
+            if (retryAfterMs > 0) {
+                reject(request, response, "account", path, retryAfterMs);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        String scope, String path, long retryAfterMs) throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfterMs + 999) / 1000);
+        log.warn("Rate limit exceeded ({}) for {} from {}", scope, path, request.getRemoteAddr());
+
+        Counter.builder("auth.rate_limit.rejections")
+                .description("Authentication requests rejected by the rate limiter")
+                .tag("scope", scope)
+                .tag("endpoint", path)
+                .register(meterRegistry)
+                .increment();
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests. Please try again later.", path);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message, String path)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", path);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.dentalclinicmanagement.security.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the request body once so it can be inspected by a filter and still be consumed by the controller.
+ * At most {@code maxBytes} are buffered; a larger body fails with {@link BodyTooLargeException}.
+ */
+class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    CachedBodyHttpServletRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        if (request.getContentLengthLong() > maxBytes) {
+            throw new BodyTooLargeException();
+        }
+        // Content-Length may be absent (chunked), so never read more than one byte past the limit
+        byte[] read = request.getInputStream().readNBytes(maxBytes + 1);
+        if (read.length > maxBytes) {
+            throw new BodyTooLargeException();
+        }
+        this.body = read;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream stream = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return stream.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            /**
+             * The whole body is already in memory, so the listener is notified right away.
+             */
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    if (!isFinished()) {
+                        readListener.onDataAvailable();
+                    }
+                    if (isFinished()) {
+                        readListener.onAllDataRead();
+                    }
+                } catch (IOException ex) {
+                    readListener.onError(ex);
+                }
+            }
+
+            @Override
+            public int read() {
+                return stream.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return stream.read(buffer, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        Charset charset = getCharacterEncoding() != null
+                ? Charset.forName(getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    static class BodyTooLargeException extends IOException {
+        BodyTooLargeException() {
+            super("Request body exceeds the rate limiter's buffer limit");
+        }
+    }
+}
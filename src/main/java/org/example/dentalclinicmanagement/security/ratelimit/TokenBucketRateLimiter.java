@@ -0,0 +1,92 @@
+package org.example.dentalclinicmanagement.security.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by an arbitrary string (client IP, account, ...).
+ * Updates are guarded by a fixed set of striped locks instead of one global lock,
+ * so unrelated keys do not contend. Idle buckets that have refilled completely are
+ * dropped once the number of tracked keys reaches {@code maxKeys}.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final Object[] locks = new Object[STRIPES];
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(int capacity, int refillTokens, long refillPeriodMs, int maxKeys) {
+        this(capacity, refillTokens, refillPeriodMs, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, int refillTokens, long refillPeriodMs, int maxKeys, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.refillPerNano = (double) refillTokens / TimeUnit.MILLISECONDS.toNanos(refillPeriodMs);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return {@code 0} if the call is allowed, otherwise milliseconds until a token becomes available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        synchronized (locks[Math.floorMod(key.hashCode(), STRIPES)]) {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys) {
+                    evictIdle(now);
+                }
+                bucket = new Bucket(capacity, now);
+                buckets.put(key, bucket);
+            }
+
+            bucket.refill(now, capacity, refillPerNano);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            double missingNanos = (1 - bucket.tokens) / refillPerNano;
+            return Math.max(1, (long) Math.ceil(missingNanos / TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    int trackedKeys() {
+        return buckets.size();
+    }
+
+    private void evictIdle(long now) {
+        double fullRefillNanos = capacity / refillPerNano;
+        buckets.values().removeIf(bucket -> now - bucket.lastRefill >= fullRefillNanos);
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+
+        private void refill(long now, double capacity, double refillPerNano) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -2,9 +2,9 @@ package org.example.dentalclinicmanagement.security.service;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.example.dentalclinicmanagement.model.Role;
 import org.example.dentalclinicmanagement.model.User;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
@@ -19,27 +19,40 @@ public class UserDetailsImpl implements UserDetails, OAuth2User {
     private final String email;
     private final String password;
 
+    @Getter
+    private final Role role;
+
+    @Getter
+    private final int securityVersion;
+
     private final Collection<? extends GrantedAuthority> authorities;
 
     @Setter
     private Map<String, Object> attributes;
 
-    public UserDetailsImpl(Long id, String email, String password,
-                           Collection<? extends GrantedAuthority> authorities) {
+    public UserDetailsImpl(Long id, String email, String password, Role role, int securityVersion) {
         this.id = id;
         this.email = email;
         this.password = password;
-        this.authorities = authorities;
+        this.role = role;
+        this.securityVersion = securityVersion;
+        this.authorities = role.getAuthorities();
     }
 
     public static UserDetailsImpl build(User user) {
-        Collection<SimpleGrantedAuthority> authorities = user.getRole().getAuthorities();
-
         return new UserDetailsImpl(
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities);
+                user.getRole(),
+                user.getSecurityVersion());
+    }
+
+    /**
+     * Principal restored from token claims; carries no password.
+     */
+    public static UserDetailsImpl fromClaims(Long id, String email, Role role, int securityVersion) {
+        return new UserDetailsImpl(id, email, null, role, securityVersion);
     }
 
     public static UserDetailsImpl build(User user, Map<String, Object> attributes) {
@@ -0,0 +1,19 @@
+package org.example.dentalclinicmanagement.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.time.LocalDate;
+
+public interface AppointmentExportService {
+    /**
+     * Rejects an unusable range up front, so callers can fail before committing to a response format.
+     *
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    void validateRange(LocalDate from, LocalDate to);
+
+    void exportCsv(LocalDate from, LocalDate to, Long dentistId, Writer out) throws IOException;
+
+    void exportXlsx(LocalDate from, LocalDate to, Long dentistId, OutputStream out) throws IOException;
+}
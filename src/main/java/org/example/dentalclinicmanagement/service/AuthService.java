@@ -9,4 +9,8 @@ public interface AuthService {
     JwtResponse authenticateUser(LoginRequest loginRequest);
 
     JwtResponse registerAndLogin(SignupRequest signUpRequest);
+
+    JwtResponse refreshToken(String refreshToken);
+
+    void logout(String refreshToken, String accessToken);
 }
@@ -1,12 +1,18 @@
 package org.example.dentalclinicmanagement.service;
 
+import org.example.dentalclinicmanagement.dto.CalendarCleanupStatusDto;
 import org.example.dentalclinicmanagement.dto.CalendarEventDto;
 import org.example.dentalclinicmanagement.model.Appointment;
 import org.example.dentalclinicmanagement.model.User;
 
+import java.util.UUID;
+
 public interface CalendarService {
     CalendarEventDto syncAppointment(Appointment appointment);
     boolean removeAppointment(Appointment appointment);
     boolean hasCalendarAccess(User user);
     void storeCredentials(User user, String accessToken, String refreshToken, Long expiresAt);
+    CalendarCleanupStatusDto unlinkCalendar(User user);
+    CalendarCleanupStatusDto getCleanupStatus(User user, UUID jobId);
+    void pullRemoteChanges(Long userId);
 }
\ No newline at end of file
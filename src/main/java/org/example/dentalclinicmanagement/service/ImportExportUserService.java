@@ -1,15 +1,22 @@
 package org.example.dentalclinicmanagement.service;
 
-import org.example.dentalclinicmanagement.dto.ImportReport;
+import org.example.dentalclinicmanagement.dto.ImportJobDto;
+import org.example.dentalclinicmanagement.model.ImportMode;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.util.UUID;
 
 public interface ImportExportUserService {
     void exportCsv(Writer out) throws IOException;
 
-    byte[] exportXlsx() throws IOException;
+    void exportXlsx(OutputStream out) throws IOException;
 
-    ImportReport importFile(InputStream in, String fileName) throws IOException;
+    ImportJobDto submitImport(InputStream in, String fileName, ImportMode mode) throws IOException;
+
+    ImportJobDto getImportJob(UUID jobId);
+
+    ImportJobDto resumeImport(UUID jobId);
 }
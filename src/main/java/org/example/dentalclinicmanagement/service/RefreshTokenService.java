@@ -0,0 +1,17 @@
+package org.example.dentalclinicmanagement.service;
+
+import org.example.dentalclinicmanagement.model.User;
+
+public interface RefreshTokenService {
+
+    String createRefreshToken(Long userId);
+
+    Rotation rotate(String refreshToken);
+
+    void revoke(String refreshToken);
+
+    void revokeAllForUser(Long userId);
+
+    record Rotation(User user, String refreshToken) {
+    }
+}
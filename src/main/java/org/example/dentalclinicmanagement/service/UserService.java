@@ -3,6 +3,7 @@ package org.example.dentalclinicmanagement.service;
 import org.example.dentalclinicmanagement.dto.DentistProfileDto;
 import org.example.dentalclinicmanagement.dto.MinimalUserRegistrationDTO;
 import org.example.dentalclinicmanagement.dto.UserDto;
+import org.example.dentalclinicmanagement.dto.UserSliceDto;
 import org.example.dentalclinicmanagement.dto.request.ChangePasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.ForgotPasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.ResetPasswordRequest;
@@ -19,6 +20,8 @@ public interface UserService {
 
     Page<UserDto> getAllUsersWithFilters(int page, int size, Role role, String search);
 
+    UserSliceDto scrollUsers(String cursor, int size, Role role, String search, boolean includeTotal);
+
     UserDto updateUserRole(Long userId, Role role);
 
     UserDto updateUserProfile(Long id, UpdateUserProfileRequest request);
@@ -0,0 +1,105 @@
+package org.example.dentalclinicmanagement.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.dto.AppointmentExportDto;
+import org.example.dentalclinicmanagement.model.AppointmentStatus;
+import org.example.dentalclinicmanagement.service.AppointmentExportService;
+import org.example.dentalclinicmanagement.util.CsvUtil;
+import org.example.dentalclinicmanagement.util.ExcelUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentExportServiceImpl implements AppointmentExportService {
+
+    // plain columns only: rows go straight to the writer without loading Appointment or User entities
+    private static final String EXPORT_APPOINTMENTS_SQL =
+            "SELECT a.id, a.appointment_time, a.duration_minutes, a.comment, " +
+            "CONCAT_WS(' ', d.first_name, d.last_name) AS dentist_name, d.email AS dentist_email, " +
+            "CONCAT_WS(' ', c.first_name, c.last_name) AS patient_name, " +
+            "c.phone_number AS patient_phone, c.email AS patient_email " +
+            "FROM appointments a " +
+            "JOIN users d ON d.user_id = a.dentist_id " +
+            "LEFT JOIN users c ON c.user_id = a.client_id " +
+            "WHERE a.status = ? AND a.appointment_time >= ? AND a.appointment_time < ? " +
+            "AND (CAST(? AS bigint) IS NULL OR a.dentist_id = ?) " +
+            "ORDER BY a.appointment_time, a.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportCsv(LocalDate from, LocalDate to, Long dentistId, Writer out) throws IOException {
+        try (Stream<AppointmentExportDto> appointments = streamAppointments(from, to, dentistId)) {
+            CsvUtil.writeAppointments(appointments, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportXlsx(LocalDate from, LocalDate to, Long dentistId, OutputStream out) throws IOException {
+        try (Stream<AppointmentExportDto> appointments = streamAppointments(from, to, dentistId)) {
+            ExcelUtil.writeAppointments(appointments, out);
+        }
+    }
+
+    @Override
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Export range start must not be after its end");
+        }
+    }
+
+    /**
+     * Booked appointments from the start of {@code from} to the end of {@code to}, read through a
+     * forward-only cursor of {@code export.fetch-size} rows per round trip (see the user export).
+     */
+    private Stream<AppointmentExportDto> streamAppointments(LocalDate from, LocalDate to, Long dentistId) {
+        validateRange(from, to);
+        log.info("Exporting booked appointments from {} to {} for dentist {}", from, to, dentistId);
+
+        return jdbcTemplate.queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT_APPOINTMENTS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            ps.setString(1, AppointmentStatus.BOOKED.name());
+            ps.setTimestamp(2, Timestamp.valueOf(from.atStartOfDay()));
+            ps.setTimestamp(3, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            if (dentistId != null) {
+                ps.setLong(4, dentistId);
+                ps.setLong(5, dentistId);
+            } else {
+                ps.setNull(4, Types.BIGINT);
+                ps.setNull(5, Types.BIGINT);
+            }
+            return ps;
+        }, (rs, rowNum) -> new AppointmentExportDto(
+                rs.getLong("id"),
+                rs.getTimestamp("appointment_time").toLocalDateTime(),
+                rs.getObject("duration_minutes", Integer.class),
+                rs.getString("dentist_name"),
+                rs.getString("dentist_email"),
+                rs.getString("patient_name"),
+                rs.getString("patient_phone"),
+                rs.getString("patient_email"),
+                rs.getString("comment")));
+    }
+}
@@ -12,6 +12,8 @@ import org.example.dentalclinicmanagement.mapper.AppointmentMapper;
 import org.example.dentalclinicmanagement.model.*;
 import org.example.dentalclinicmanagement.repository.AppointmentRepository;
 import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.security.AuthorizationContext;
+import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
 import org.example.dentalclinicmanagement.service.AppointmentService;
 import org.example.dentalclinicmanagement.service.CalendarService;
 import org.example.dentalclinicmanagement.service.ClinicSettingsService;
@@ -38,6 +40,8 @@ import java.util.stream.Stream;
 @Slf4j
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final Set<String> PRIVILEGED_AUTHORITIES = Set.of("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_DENTIST");
+
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final ClinicSettingsService settingsService;
@@ -360,12 +364,20 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     private boolean isPrivileged() {
+        AuthorizationContext context = AuthorizationContext.current();
+        if (context != null) return context.privileged();
+
+        // OAuth2 sessions and calls outside a request have no precomputed context
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null) return false;
+        if (auth.getPrincipal() instanceof UserDetailsImpl principal) {
+            return principal.getRole().isPrivileged();
+        }
 
-        return auth.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> Set.of("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_DENTIST").contains(role));
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if (PRIVILEGED_AUTHORITIES.contains(authority.getAuthority())) return true;
+        }
+        return false;
     }
 
     private void validateBookingPermissions(User client, String userEmail) {
@@ -1,5 +1,6 @@
 package org.example.dentalclinicmanagement.service.impl;
 
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dentalclinicmanagement.dto.request.LoginRequest;
@@ -10,8 +11,11 @@ import org.example.dentalclinicmanagement.model.Role;
 import org.example.dentalclinicmanagement.model.User;
 import org.example.dentalclinicmanagement.repository.UserRepository;
 import org.example.dentalclinicmanagement.security.jwt.JwtUtils;
+import org.example.dentalclinicmanagement.security.jwt.TokenRevocationList;
 import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
 import org.example.dentalclinicmanagement.service.AuthService;
+import org.example.dentalclinicmanagement.service.RefreshTokenService;
+import org.example.dentalclinicmanagement.util.PhoneUtil;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -33,6 +37,8 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder encoder;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList revocationList;
 
     @Override
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
@@ -45,14 +51,42 @@ public class AuthServiceImpl implements AuthService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
+        String refreshToken = refreshTokenService.createRefreshToken(userDetails.getId());
+        JwtResponse response = buildResponse(userDetails, refreshToken);
+
+        log.info("User {} successfully logged in with roles: {}", userDetails.getEmail(), response.getRoles());
+
+        return response;
+    }
+
+    @Override
+    public JwtResponse refreshToken(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        UserDetailsImpl userDetails = UserDetailsImpl.build(rotation.user());
+
+        log.debug("Access token refreshed for user: {}", userDetails.getEmail());
+        return buildResponse(userDetails, rotation.refreshToken());
+    }
+
+    @Override
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+
+        if (accessToken != null) {
+            Claims claims = jwtUtils.validateAndGetClaims(accessToken);
+            if (claims != null && claims.getExpiration() != null) {
+                revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+            }
+        }
+    }
+
+    private JwtResponse buildResponse(UserDetailsImpl userDetails, String refreshToken) {
         String jwt = jwtUtils.generateJwtToken(userDetails);
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
-        log.info("User {} successfully logged in with roles: {}", userDetails.getEmail(), roles);
-
-        return new JwtResponse(jwt, userDetails.getId(), userDetails.getEmail(), roles);
+        return new JwtResponse(jwt, refreshToken, userDetails.getId(), userDetails.getEmail(), roles);
     }
 
     @Override
@@ -65,6 +99,12 @@ public class AuthServiceImpl implements AuthService {
             throw new EmailAlreadyExistsException("User with email " + signUpRequest.getEmail() + " already exists");
         }
 
+        String e164 = PhoneUtil.toE164(signUpRequest.getPhoneNumber());
+        if (e164 != null && userRepository.existsByPhoneE164(e164)) {
+            log.warn("Registration attempt failed - phone already in use: {}", signUpRequest.getPhoneNumber());
+            throw new IllegalArgumentException("Phone number is already in use");
+        }
+
         User user = new User();
         user.setFirstName(signUpRequest.getFirstName());
         user.setLastName(signUpRequest.getLastName());
@@ -1,32 +1,63 @@
 package org.example.dentalclinicmanagement.service.impl;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.UserCredentials;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.cache.CalendarAccessCache;
+import org.example.dentalclinicmanagement.dto.CalendarCleanupStatusDto;
 import org.example.dentalclinicmanagement.dto.CalendarEventDto;
+import org.example.dentalclinicmanagement.job.CalendarCleanupJobs;
 import org.example.dentalclinicmanagement.model.Appointment;
 import org.example.dentalclinicmanagement.model.AppointmentCalendarLink;
+import org.example.dentalclinicmanagement.model.CalendarCleanupJob;
+import org.example.dentalclinicmanagement.model.CalendarCleanupStatus;
+import org.example.dentalclinicmanagement.model.CalendarLinkState;
 import org.example.dentalclinicmanagement.model.GoogleCredential;
 import org.example.dentalclinicmanagement.model.User;
 import org.example.dentalclinicmanagement.repository.AppointmentCalendarLinkRepository;
+import org.example.dentalclinicmanagement.repository.CalendarCleanupJobRepository;
 import org.example.dentalclinicmanagement.repository.GoogleCredentialRepository;
+import org.example.dentalclinicmanagement.resilience.CalendarCallGuard;
 import org.example.dentalclinicmanagement.service.CalendarService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +66,11 @@ public class GoogleCalendarServiceImpl implements CalendarService {
 
     private final GoogleCredentialRepository credentialRepository;
     private final AppointmentCalendarLinkRepository linkRepository;
+    private final CalendarAccessCache accessCache;
+    private final CalendarCallGuard callGuard;
+    private final CalendarCleanupJobs cleanupJobs;
+    private final CalendarCleanupJobRepository cleanupJobRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String clientId;
@@ -42,8 +78,17 @@ public class GoogleCalendarServiceImpl implements CalendarService {
     @Value("${spring.security.oauth2.client.registration.google.client-secret}")
     private String clientSecret;
 
+    @Value("${calendar.resilience.call-timeout-ms:5000}")
+    private int httpTimeoutMs;
+
     private static final String APPLICATION_NAME = "Dental Clinic Management";
     private static final String CALENDAR_ID = "primary";
+    private static final String PATCH_RESPONSE_FIELDS = "id,etag,summary,description";
+    private static final String SYNC_BOOTSTRAP_FIELDS = "nextPageToken,nextSyncToken";
+    private static final String SYNC_CHANGES_FIELDS = "nextPageToken,nextSyncToken,items(id,etag,status)";
+    private static final String EVENT_STATUS_CANCELLED = "cancelled";
+    private static final int SYNC_PAGE_SIZE = 250;
+    private static final int CLEANUP_BATCH_SIZE = 50;
 
     @Override
     @Transactional
@@ -66,15 +111,27 @@ public class GoogleCalendarServiceImpl implements CalendarService {
             Calendar calendar = buildCalendar(credentialOpt.get());
             Optional<AppointmentCalendarLink> linkOpt = linkRepository.findByAppointmentId(appointment.getId());
 
-            if (linkOpt.isPresent()) {
-                return updateExistingEvent(calendar, linkOpt.get(), appointment);
-            } else {
-                return createNewEvent(calendar, appointment);
+            if (linkOpt.isPresent() && linkOpt.get().getState() == CalendarLinkState.REMOTE_DELETED) {
+                log.info("Google event of appointment {} was deleted remotely, recreating it", appointment.getId());
+                linkRepository.delete(linkOpt.get());
+                linkOpt = Optional.empty();
             }
 
+            CalendarEventDto result = linkOpt.isPresent()
+                    ? updateExistingEvent(calendar, linkOpt.get(), appointment)
+                    : createNewEvent(calendar, appointment);
+
+            accessCache.put(appointment.getClient().getId(), true);
+            return result;
+
+        } catch (CallNotPermittedException | BulkheadFullException ex) {
+            log.warn("Google Calendar unavailable, skipping sync of appointment {}: {}",
+                    appointment.getId(), ex.getMessage());
+            return null;
         } catch (Exception ex) {
             log.error("Error syncing appointment {} to Google Calendar: {}",
                     appointment.getId(), ex.getMessage(), ex);
+            recordAccessFailure(appointment.getClient().getId(), ex);
             return null;
         }
     }
@@ -101,7 +158,13 @@ public class GoogleCalendarServiceImpl implements CalendarService {
             }
 
             Calendar calendar = buildCalendar(credentialOpt.get());
-            calendar.events().delete(CALENDAR_ID, link.getGoogleEventId()).execute();
+            try {
+                callGuard.execute("delete", calendar.events().delete(CALENDAR_ID, link.getGoogleEventId())::execute);
+                accessCache.put(link.getUserId(), true);
+            } catch (Exception ex) {
+                recordAccessFailure(link.getUserId(), ex);
+                throw ex;
+            }
             linkRepository.delete(link);
 
             log.info("Google event deleted: eventId={}", link.getGoogleEventId());
@@ -126,25 +189,293 @@ public class GoogleCalendarServiceImpl implements CalendarService {
         credential.setAccessTokenExpiry(Instant.ofEpochMilli(expiresAt));
 
         credentialRepository.save(credential);
+        accessCache.invalidate(user.getId());
         log.info("Google credentials stored for user: {}", user.getEmail());
     }
 
+    @Override
+    @Transactional
+    public CalendarCleanupStatusDto unlinkCalendar(User user) {
+        Optional<GoogleCredential> credentialOpt = credentialRepository.findByUser(user);
+        List<String> eventIds = credentialOpt.isPresent()
+                ? linkRepository.findGoogleEventIdsByUserId(user.getId())
+                : List.of();
+
+        credentialOpt.ifPresent(credentialRepository::delete);
+        int removedLinks = linkRepository.deleteAllByUserId(user.getId());
+        accessCache.invalidate(user.getId());
+
+        log.info("Google Calendar unlinked for user: {}, {} links removed", user.getEmail(), removedLinks);
+
+        if (eventIds.isEmpty()) {
+            return null;
+        }
+
+        CalendarCleanupJob job = cleanupJobRepository.save(
+                new CalendarCleanupJob(UUID.randomUUID(), credentialOpt.get(), user.getId(), eventIds));
+        Runnable start = () -> cleanupJobs.submit(() -> runCleanup(job.getId()));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    start.run();
+                }
+            });
+        } else {
+            start.run();
+        }
+        return toDto(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CalendarCleanupStatusDto getCleanupStatus(User user, UUID jobId) {
+        return cleanupJobRepository.findById(jobId)
+                .filter(job -> job.getUserId().equals(user.getId()))
+                .map(GoogleCalendarServiceImpl::toDto)
+                .orElse(null);
+    }
+
+    /**
+     * Re-submits cleanup jobs that were queued or running when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeCleanupJobs() {
+        int interrupted = cleanupJobRepository.requeueRunning(CalendarCleanupStatus.RUNNING, CalendarCleanupStatus.PENDING);
+        List<UUID> pending = cleanupJobRepository.findIdsByStatus(CalendarCleanupStatus.PENDING);
+        if (!pending.isEmpty()) {
+            log.info("Resuming {} calendar cleanup jobs ({} interrupted)", pending.size(), interrupted);
+        }
+        pending.forEach(jobId -> cleanupJobs.submit(() -> runCleanup(jobId)));
+    }
+
+    void runCleanup(UUID jobId) {
+        if (cleanupJobRepository.claim(jobId, CalendarCleanupStatus.PENDING, CalendarCleanupStatus.RUNNING,
+                Instant.now()) == 0) {
+            log.warn("Calendar cleanup job {} is already running or finished", jobId);
+            return;
+        }
+        CalendarCleanupJob job = cleanupJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Calendar cleanup job disappeared: " + jobId));
+        List<String> eventIds = cleanupJobRepository.findPendingEventIds(jobId);
+
+        Calendar calendar;
+        try {
+            calendar = buildCalendar(job.toCredential());
+        } catch (Exception ex) {
+            log.error("Cannot build calendar client for cleanup job {}: {}", jobId, ex.getMessage(), ex);
+            cleanupJobRepository.recordProgress(jobId, 0, eventIds.size());
+            cleanupJobRepository.finish(jobId, CalendarCleanupStatus.COMPLETED_WITH_ERRORS, Instant.now());
+            return;
+        }
+
+        int failed = removeRemoteEvents(calendar, job, eventIds);
+
+        CalendarCleanupStatus status = failed > 0
+                ? CalendarCleanupStatus.COMPLETED_WITH_ERRORS
+                : CalendarCleanupStatus.COMPLETED;
+        cleanupJobRepository.finish(jobId, status, Instant.now());
+        log.info("Calendar cleanup job {} finished: {} of {} events failed", jobId, failed, eventIds.size());
+    }
+
+    /**
+     * Not transactional: the pages are fetched first, and only the reconciliation and the new sync token
+     * are written in one short transaction, so no connection is held across Google round trips.
+     */
+    @Override
+    public void pullRemoteChanges(Long userId) {
+        Optional<GoogleCredential> credentialOpt = credentialRepository.findByUser_Id(userId);
+        if (credentialOpt.isEmpty()) {
+            return;
+        }
+
+        GoogleCredential credential = credentialOpt.get();
+        String syncToken = credential.getSyncToken();
+        boolean bootstrap = syncToken == null;
+
+        try {
+            Calendar calendar = buildCalendar(credential);
+            String pageToken = null;
+            List<Event> changes = new ArrayList<>();
+            Events page;
+
+            do {
+                Calendar.Events.List request = calendar.events().list(CALENDAR_ID)
+                        .setMaxResults(SYNC_PAGE_SIZE)
+                        .setPageToken(pageToken);
+                if (bootstrap) {
+                    request.setFields(SYNC_BOOTSTRAP_FIELDS);
+                } else {
+                    request.setSyncToken(syncToken).setFields(SYNC_CHANGES_FIELDS);
+                }
+
+                page = callGuard.execute("sync", request::execute);
+                if (!bootstrap && page.getItems() != null) {
+                    changes.addAll(page.getItems());
+                }
+                pageToken = page.getNextPageToken();
+            } while (pageToken != null);
+
+            String nextSyncToken = page.getNextSyncToken();
+            Integer reconciled = transactionTemplate.execute(status -> {
+                int count = changes.isEmpty() ? 0 : reconcileRemoteChanges(userId, changes);
+                credential.setSyncToken(nextSyncToken);
+                credential.setLastSyncedAt(Instant.now());
+                credentialRepository.save(credential);
+                return count;
+            });
+            accessCache.put(userId, true);
+
+            log.debug("Calendar changes pulled for user {}: bootstrap={}, reconciled={}", userId, bootstrap, reconciled);
+
+        } catch (GoogleJsonResponseException ex) {
+            if (ex.getStatusCode() == HttpStatus.GONE.value()) {
+                log.info("Sync token of user {} expired, next run performs a fresh bootstrap", userId);
+                credential.setSyncToken(null);
+                credentialRepository.save(credential);
+            } else {
+                log.warn("Failed to pull calendar changes for user {}: {}", userId, ex.getMessage());
+                recordAccessFailure(userId, ex);
+            }
+        } catch (Exception ex) {
+            log.warn("Failed to pull calendar changes for user {}: {}", userId, ex.getMessage());
+            recordAccessFailure(userId, ex);
+        }
+    }
+
     @Override
     public boolean hasCalendarAccess(User user) {
+        Boolean cached = accessCache.getIfPresent(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean hasAccess;
         try {
             Optional<GoogleCredential> credentialOpt = credentialRepository.findByUser(user);
             if (credentialOpt.isEmpty()) {
-                return false;
+                hasAccess = false;
+            } else {
+                Calendar calendar = buildCalendar(credentialOpt.get());
+                callGuard.execute("list", calendar.events().list(CALENDAR_ID).setMaxResults(1)::execute);
+                hasAccess = true;
             }
 
-            Calendar calendar = buildCalendar(credentialOpt.get());
-            calendar.events().list(CALENDAR_ID).setMaxResults(1).execute();
-            return true;
-
         } catch (Exception ex) {
             log.warn("Calendar access test failed for user {}: {}", user.getEmail(), ex.getMessage());
-            return false;
+            hasAccess = false;
+        }
+
+        accessCache.put(user.getId(), hasAccess);
+        return hasAccess;
+    }
+
+    /**
+     * Deletes the events in batches. Each batch is checkpointed in its own transaction: ids Google
+     * confirmed (or already lacked) leave the pending list, the rest stay there for a later retry.
+     *
+     * @return number of events that could not be removed
+     */
+    private int removeRemoteEvents(Calendar calendar, CalendarCleanupJob job, List<String> eventIds) {
+        int failed = 0;
+
+        for (int from = 0; from < eventIds.size(); from += CLEANUP_BATCH_SIZE) {
+            List<String> chunk = eventIds.subList(from, Math.min(from + CLEANUP_BATCH_SIZE, eventIds.size()));
+            List<String> removed = new ArrayList<>();
+            try {
+                BatchRequest batch = calendar.batch();
+                for (String eventId : chunk) {
+                    calendar.events().delete(CALENDAR_ID, eventId).queue(batch, new JsonBatchCallback<Void>() {
+                        @Override
+                        public void onSuccess(Void unused, HttpHeaders responseHeaders) {
+                            removed.add(eventId);
+                        }
+
+                        @Override
+                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                            if (error.getCode() == HttpStatus.NOT_FOUND.value()
+                                    || error.getCode() == HttpStatus.GONE.value()) {
+                                removed.add(eventId);
+                            }
+                        }
+                    });
+                }
+                callGuard.execute("batchDelete", () -> {
+                    batch.execute();
+                    return null;
+                });
+            } catch (Exception ex) {
+                log.warn("Failed to remove a batch of {} Google events for user {}: {}",
+                        chunk.size(), job.getUserId(), ex.getMessage());
+            }
+
+            int chunkFailed = chunk.size() - removed.size();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!removed.isEmpty()) {
+                    cleanupJobRepository.deletePendingEvents(job.getId(), removed);
+                }
+                cleanupJobRepository.recordProgress(job.getId(), removed.size(), chunkFailed);
+            });
+            failed += chunkFailed;
+        }
+        return failed;
+    }
+
+    private static CalendarCleanupStatusDto toDto(CalendarCleanupJob job) {
+        return new CalendarCleanupStatusDto(job.getId(), job.getStatus().name(), job.getTotal(),
+                job.getRemoved(), job.getFailed(), job.getStartedAt(), job.getFinishedAt());
+    }
+
+    private int reconcileRemoteChanges(Long userId, List<Event> changes) {
+        Map<String, Event> changesById = changes.stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity(), (first, second) -> second));
+
+        List<AppointmentCalendarLink> affected = new ArrayList<>();
+        for (AppointmentCalendarLink link : linkRepository.findByUserIdAndGoogleEventIdIn(userId, changesById.keySet())) {
+            Event event = changesById.get(link.getGoogleEventId());
+
+            CalendarLinkState state;
+            if (EVENT_STATUS_CANCELLED.equals(event.getStatus())) {
+                state = CalendarLinkState.REMOTE_DELETED;
+            } else if (!Objects.equals(event.getEtag(), link.getEtag())) {
+                state = CalendarLinkState.REMOTE_MODIFIED;
+            } else {
+                continue;
+            }
+
+            log.info("Google event {} of appointment {} was changed remotely: {}",
+                    link.getGoogleEventId(), link.getAppointmentId(), state);
+            link.setState(state);
+            link.setEtag(event.getEtag());
+            affected.add(link);
+        }
+
+        linkRepository.saveAll(affected);
+        return affected.size();
+    }
+
+    private void recordAccessFailure(Long userId, Exception ex) {
+        if (isAuthorizationFailure(ex)) {
+            log.info("Google rejected credentials of user {}, marking calendar access as lost", userId);
+            accessCache.put(userId, false);
+        }
+    }
+
+    private boolean isAuthorizationFailure(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof HttpResponseException response) {
+                int status = response.getStatusCode();
+                if (status == HttpStatus.UNAUTHORIZED.value()) {
+                    return true;
+                }
+                String content = response.getContent();
+                if (status == HttpStatus.BAD_REQUEST.value() && content != null && content.contains("invalid_grant")) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     private Calendar buildCalendar(GoogleCredential credential) throws Exception {
@@ -163,18 +494,26 @@ public class GoogleCalendarServiceImpl implements CalendarService {
                 .setAccessToken(accessToken)
                 .build();
 
-        return new Calendar.Builder(httpTransport, jsonFactory, new HttpCredentialsAdapter(userCredentials))
+        HttpCredentialsAdapter credentialsAdapter = new HttpCredentialsAdapter(userCredentials);
+        HttpRequestInitializer requestInitializer = request -> {
+            credentialsAdapter.initialize(request);
+            request.setConnectTimeout(httpTimeoutMs);
+            request.setReadTimeout(httpTimeoutMs);
+        };
+
+        return new Calendar.Builder(httpTransport, jsonFactory, requestInitializer)
                 .setApplicationName(APPLICATION_NAME)
                 .build();
     }
 
     private CalendarEventDto createNewEvent(Calendar calendar, Appointment appointment) throws Exception {
         Event event = buildEvent(appointment);
-        Event created = calendar.events().insert(CALENDAR_ID, event).execute();
+        Event created = callGuard.execute("insert", calendar.events().insert(CALENDAR_ID, event)::execute);
 
         AppointmentCalendarLink link = new AppointmentCalendarLink();
         link.setAppointmentId(appointment.getId());
         link.setGoogleEventId(created.getId());
+        link.setEtag(created.getEtag());
         link.setUserId(appointment.getClient().getId());
         linkRepository.save(link);
 
@@ -190,31 +529,68 @@ public class GoogleCalendarServiceImpl implements CalendarService {
 
     private CalendarEventDto updateExistingEvent(Calendar calendar, AppointmentCalendarLink link,
                                                  Appointment appointment) throws Exception {
+        Event source = buildEvent(appointment);
+        Event patch = new Event()
+                .setStart(source.getStart())
+                .setEnd(source.getEnd())
+                .setSummary(source.getSummary())
+                .setDescription(source.getDescription());
+
+        Event updated;
         try {
-            Event existingEvent = calendar.events().get(CALENDAR_ID, link.getGoogleEventId()).execute();
-            Event updatedEvent = buildEvent(appointment);
+            updated = patchEvent(calendar, link, patch);
+        } catch (GoogleJsonResponseException ex) {
+            int status = ex.getStatusCode();
+            if (status == HttpStatus.PRECONDITION_FAILED.value()) {
+                return flagRemoteConflict(link);
+            } else if (status == HttpStatus.NOT_FOUND.value() || status == HttpStatus.GONE.value()) {
+                log.warn("Google event {} no longer exists, creating new one", link.getGoogleEventId());
+                linkRepository.delete(link);
+                return createNewEvent(calendar, appointment);
+            } else {
+                throw ex;
+            }
+        }
 
-            existingEvent.setStart(updatedEvent.getStart())
-                    .setEnd(updatedEvent.getEnd())
-                    .setDescription(updatedEvent.getDescription())
-                    .setSummary(updatedEvent.getSummary());
+        link.setEtag(updated.getEtag());
+        link.setState(CalendarLinkState.SYNCED);
+        linkRepository.save(link);
 
-            Event updated = calendar.events().update(CALENDAR_ID, link.getGoogleEventId(), existingEvent).execute();
+        log.info("Google event updated: eventId={}", link.getGoogleEventId());
 
-            log.info("Google event updated: eventId={}", link.getGoogleEventId());
+        return CalendarEventDto.builder()
+                .eventId(updated.getId())
+                .title(updated.getSummary())
+                .description(updated.getDescription())
+                .status("updated")
+                .build();
+    }
 
-            return CalendarEventDto.builder()
-                    .eventId(updated.getId())
-                    .title(updated.getSummary())
-                    .description(updated.getDescription())
-                    .status("updated")
-                    .build();
+    /**
+     * The event was edited in Google Calendar since our last write. The clinic-side change is not forced
+     * over it; the link is flagged so the conflict is visible and the next sync pull refreshes its etag.
+     */
+    private CalendarEventDto flagRemoteConflict(AppointmentCalendarLink link) {
+        log.warn("Google event {} of appointment {} was changed remotely, not overwriting it",
+                link.getGoogleEventId(), link.getAppointmentId());
+        link.setState(CalendarLinkState.REMOTE_MODIFIED);
+        linkRepository.save(link);
 
-        } catch (Exception ex) {
-            log.warn("Failed to update existing event {}, creating new one", link.getGoogleEventId());
-            linkRepository.delete(link);
-            return createNewEvent(calendar, appointment);
+        return CalendarEventDto.builder()
+                .eventId(link.getGoogleEventId())
+                .status("conflict")
+                .build();
+    }
+
+    private Event patchEvent(Calendar calendar, AppointmentCalendarLink link, Event patch) throws Exception {
+        Calendar.Events.Patch request = calendar.events()
+                .patch(CALENDAR_ID, link.getGoogleEventId(), patch)
+                .setFields(PATCH_RESPONSE_FIELDS);
+
+        if (link.getEtag() != null) {
+            request.getRequestHeaders().setIfMatch(link.getEtag());
         }
+        return callGuard.execute("patch", request::execute);
     }
 
     private Event buildEvent(Appointment appointment) {
@@ -2,92 +2,390 @@ package org.example.dentalclinicmanagement.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.io.FilenameUtils;
-import org.example.dentalclinicmanagement.dto.ImportReport;
+import org.example.dentalclinicmanagement.dto.ImportJobDto;
 import org.example.dentalclinicmanagement.dto.SimpleUserDto;
+import org.example.dentalclinicmanagement.exception.ImportJobNotFoundException;
+import org.example.dentalclinicmanagement.job.ImportJobRunner;
+import org.example.dentalclinicmanagement.model.ImportJob;
+import org.example.dentalclinicmanagement.model.ImportJobStatus;
+import org.example.dentalclinicmanagement.model.ImportMode;
 import org.example.dentalclinicmanagement.model.Role;
 import org.example.dentalclinicmanagement.model.User;
-import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.repository.ImportJobRepository;
 import org.example.dentalclinicmanagement.service.ImportExportUserService;
 import org.example.dentalclinicmanagement.util.CsvUtil;
 import org.example.dentalclinicmanagement.util.ExcelUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.util.List;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class ImportExportUserServiceImpl implements ImportExportUserService {
 
-    private final UserRepository userRepo;
-    private final PasswordEncoder encoder;
+    private static final String FIND_IDS_BY_PHONE_SQL =
+            "SELECT user_id, phone_e164 FROM users WHERE phone_e164 IN (:phones)";
+
+    // writes bypass JPA, so the columns normally set in User#refreshDerivedColumns are supplied here;
+    // imported phones are already in E.164, which doubles as the stored phone_number
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (email, password, first_name, last_name, phone_number, phone_e164, role, " +
+            "is_two_factor_enabled, security_version, search_text) " +
+            "VALUES (:email, :password, :firstName, :lastName, :phone, :phone, :role, false, 0, :searchText)";
+
+    private static final String UPDATE_USER_SQL =
+            "UPDATE users SET email = :email, first_name = :firstName, last_name = :lastName, " +
+            "search_text = :searchText WHERE user_id = :id";
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE user_import_staging (ord bigint NOT NULL, phone varchar(16) NOT NULL, " +
+            "first_name varchar(255), last_name varchar(255), email varchar(255) NOT NULL, " +
+            "search_text varchar(1024)) ON COMMIT DROP";
+
+    private static final String COPY_STAGING_SQL =
+            "COPY user_import_staging (ord, phone, first_name, last_name, email, search_text) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    // the last staged row per phone wins, as in the incremental path; xmax = 0 marks freshly inserted rows
+    private static final String MERGE_STAGING_SQL =
+            "WITH merged AS (" +
+            "INSERT INTO users (email, password, first_name, last_name, phone_number, phone_e164, role, " +
+            "is_two_factor_enabled, security_version, search_text) " +
+            "SELECT DISTINCT ON (phone) email, :password, first_name, last_name, phone, phone, :role, " +
+            "false, 0, search_text FROM user_import_staging ORDER BY phone, ord DESC " +
+            "ON CONFLICT (phone_e164) DO UPDATE SET email = EXCLUDED.email, first_name = EXCLUDED.first_name, " +
+            "last_name = EXCLUDED.last_name, search_text = EXCLUDED.search_text " +
+            "RETURNING (xmax = 0) AS inserted) " +
+            "SELECT count(*) FILTER (WHERE inserted) FROM merged";
+
+    private static final String EXPORT_USERS_SQL =
+            "SELECT phone_number, first_name, last_name, email FROM users ORDER BY user_id";
+
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("csv", "xls", "xlsx");
+    private static final List<ImportJobStatus> RUNNABLE_STATES = List.of(ImportJobStatus.QUEUED, ImportJobStatus.FAILED);
+    private static final String IMPORT_SUBDIR = "imports";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobRunner importJobRunner;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Validation workers per import; 0 uses one per available processor.
+     */
+    @Value("${import.workers:0}")
+    private int workers;
+
+    @Value("${import.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${export.fetch-size:1000}")
+    private int exportFetchSize;
 
     @Override
-    public ImportReport importFile(InputStream in, String fileName) throws IOException {
-        log.info("Starting import from file: {}", fileName);
+    public ImportJobDto submitImport(InputStream in, String fileName, ImportMode mode) throws IOException {
+        String ext = extensionOf(fileName);
 
-        String ext = FilenameUtils.getExtension(fileName).toLowerCase();
+        UUID jobId = UUID.randomUUID();
+        Path dir = Paths.get(uploadDir, IMPORT_SUBDIR).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        Path stored = dir.resolve(jobId + "." + ext);
+        Files.copy(in, stored);
 
-        List<SimpleUserDto> rows = switch (ext) {
-            case "csv" -> CsvUtil.readUsers(in);
-            case "xls", "xlsx" -> ExcelUtil.readUsers(in);
-            default -> throw new IllegalArgumentException("Unsupported format: " + ext);
-        };
+        ImportJob job = importJobRepository.save(new ImportJob(jobId, fileName, stored.toString(), mode));
+        log.info("Queued {} import job {} for file: {}", mode, jobId, fileName);
 
-        int created = 0, updated = 0, skipped = 0;
+        importJobRunner.submit(() -> runJob(jobId));
+        return toDto(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ImportJobDto getImportJob(UUID jobId) {
+        return toDto(findJob(jobId));
+    }
 
-        for (SimpleUserDto row : rows) {
-            String phone = row.phone().trim();
-            if (phone.isEmpty()) {
-                skipped++;
-                continue;
+    @Override
+    public ImportJobDto resumeImport(UUID jobId) {
+        ImportJob job = findJob(jobId);
+        if (job.getStatus() != ImportJobStatus.FAILED) {
+            throw new IllegalStateException("Only failed import jobs can be resumed");
+        }
+        log.info("Resuming import job {} after {} rows", jobId, job.getRowsProcessed());
+
+        importJobRunner.submit(() -> runJob(jobId));
+        return toDto(job);
+    }
+
+    void runJob(UUID jobId) {
+        if (importJobRepository.claim(jobId, RUNNABLE_STATES, ImportJobStatus.RUNNING, Instant.now()) == 0) {
+            log.warn("Import job {} is already running or finished", jobId);
+            return;
+        }
+        ImportJob job = findJob(jobId);
+        Path stored = Paths.get(job.getStoredPath());
+
+        try (InputStream in = Files.newInputStream(stored)) {
+            UserImportPipeline.RowSource source = switch (extensionOf(job.getFileName())) {
+                case "csv" -> sink -> CsvUtil.forEachUser(in, sink);
+                default -> sink -> ExcelUtil.forEachUser(in, sink);
+            };
+            long rows = job.getMode() == ImportMode.BULK
+                    ? bulkLoad(jobId, source)
+                    : newPipeline().run(source, job.getRowsProcessed(), chunk -> writeChunk(jobId, chunk));
+
+            importJobRepository.finish(jobId, ImportJobStatus.COMPLETED, null, Instant.now());
+            log.info("Import job {} completed after {} rows", jobId, rows);
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", jobId, e.getMessage(), e);
+            importJobRepository.finish(jobId, ImportJobStatus.FAILED, truncate(e.getMessage()), Instant.now());
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(stored);
+        } catch (IOException e) {
+            log.warn("Could not delete imported file {}: {}", stored, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one chunk with batched statements and records its checkpoint in the same transaction,
+     * so the job's counters and rowsProcessed always describe committed data.
+     */
+    private void writeChunk(UUID jobId, UserImportPipeline.PreparedChunk chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<MapSqlParameterSource> inserts = new ArrayList<>();
+            List<MapSqlParameterSource> updates = new ArrayList<>();
+
+            if (!chunk.rows().isEmpty()) {
+                Map<String, Long> existingIds = findIdsByPhone(
+                        chunk.rows().stream().map(UserImportPipeline.PreparedRow::phone).toList());
+
+                for (UserImportPipeline.PreparedRow row : chunk.rows()) {
+                    MapSqlParameterSource params = toParams(row);
+                    Long id = existingIds.get(row.phone());
+                    if (id == null) {
+                        inserts.add(params
+                                .addValue("password", User.UNSET_PASSWORD)
+                                .addValue("role", Role.USER.name()));
+                    } else {
+                        updates.add(params.addValue("id", id));
+                    }
+                }
             }
 
-            User user = userRepo.findByPhoneNumber(phone)
-                    .orElseGet(User::new);
-
-            user.setPhoneNumber(phone);
-            user.setFirstName(row.firstName());
-            user.setLastName(row.lastName());
-
-            String email = (row.email() == null || row.email().isBlank())
-                    ? phone.replace("+", "") + "@import.local"
-                    : row.email().trim();
-            user.setEmail(email);
-
-            if (user.getId() == null) {
-                user.setPhoneNumber(phone);
-                user.setPassword(encoder.encode(UUID.randomUUID().toString()));
-                user.setRole(Role.USER);
-                created++;
-            } else {
-                updated++;
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_USER_SQL, inserts.toArray(MapSqlParameterSource[]::new));
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_USER_SQL, updates.toArray(MapSqlParameterSource[]::new));
             }
-            userRepo.save(user);
+
+            // a phone repeated in the chunk counts as an update of its earlier row
+            importJobRepository.recordProgress(jobId, chunk.rowsProcessed(),
+                    inserts.size(), updates.size() + chunk.duplicates(), chunk.skipped());
+        });
+        log.debug("Import job {} wrote chunk {} ({} rows)", jobId, chunk.seq(), chunk.rows().size());
+    }
+
+    /**
+     * Streams the prepared rows into a temporary staging table with COPY and merges them into
+     * {@code users} with one upsert. Everything runs in a single transaction, so a failure leaves
+     * no partial data behind and the job is retried from the first row.
+     *
+     * @return number of source rows read
+     */
+    private long bulkLoad(UUID jobId, UserImportPipeline.RowSource source) throws IOException {
+        try {
+            return transactionTemplate.execute(status -> {
+                JdbcTemplate jdbc = jdbcTemplate.getJdbcTemplate();
+                jdbc.execute(CREATE_STAGING_SQL);
+                BulkCopy copy = jdbc.execute((ConnectionCallback<BulkCopy>) con -> copyToStaging(con, source));
+
+                Integer created = jdbcTemplate.queryForObject(MERGE_STAGING_SQL, new MapSqlParameterSource()
+                        .addValue("password", User.UNSET_PASSWORD)
+                        .addValue("role", Role.USER.name()), Integer.class);
+                int inserted = created != null ? created : 0;
+
+                // every staged row that did not create a user updated one; repeated phones count as updates too
+                importJobRepository.recordProgress(jobId, copy.rows(), inserted,
+                        (int) (copy.staged() - inserted) + copy.duplicates(), copy.skipped());
+                log.info("Import job {} merged {} staged rows", jobId, copy.staged());
+                return copy.rows();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private BulkCopy copyToStaging(Connection con, UserImportPipeline.RowSource source) throws SQLException {
+        CopyIn copyIn = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING_SQL);
+        long[] staged = new long[1];
+        int[] duplicates = new int[1];
+        int[] skipped = new int[1];
+        try {
+            long rows = newPipeline().run(source, 0, chunk -> {
+                byte[] bytes = toCopyRows(chunk.rows(), staged[0]);
+                try {
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                } catch (SQLException e) {
+                    throw new UncategorizedSQLException("COPY", COPY_STAGING_SQL, e);
+                }
+                staged[0] += chunk.rows().size();
+                duplicates[0] += chunk.duplicates();
+                skipped[0] += chunk.skipped();
+            });
+            copyIn.endCopy();
+            return new BulkCopy(rows, staged[0], duplicates[0], skipped[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static byte[] toCopyRows(List<UserImportPipeline.PreparedRow> rows, long firstOrd) {
+        StringBuilder buf = new StringBuilder(rows.size() * 128);
+        try (CSVPrinter pr = new CSVPrinter(buf, CSVFormat.POSTGRESQL_CSV)) {
+            long ord = firstOrd;
+            for (UserImportPipeline.PreparedRow row : rows) {
+                pr.printRecord(ord++, row.phone(), row.firstName(), row.lastName(), row.email(), row.searchText());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buf.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param staged     rows written to the staging table
+     * @param duplicates rows dropped before staging because a later row in the same chunk had their phone
+     */
+    private record BulkCopy(long rows, long staged, int duplicates, int skipped) {
+    }
+
+    private UserImportPipeline newPipeline() {
+        return new UserImportPipeline(chunkSize, workerCount(), queueCapacity);
+    }
+
+    private int workerCount() {
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    private ImportJob findJob(UUID jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job not found with id: " + jobId));
+    }
+
+    private static String extensionOf(String fileName) {
+        String ext = FilenameUtils.getExtension(fileName).toLowerCase();
+        if (!SUPPORTED_EXTENSIONS.contains(ext)) {
+            throw new IllegalArgumentException("Unsupported format: " + ext);
         }
-        log.info("Import completed: {} created, {} updated, {} skipped",
-                created, updated, skipped);
-        return new ImportReport(fileName, created, updated, skipped);
+        return ext;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static ImportJobDto toDto(ImportJob job) {
+        return new ImportJobDto(job.getId(), job.getFileName(), job.getMode().name(), job.getStatus().name(), job.getRowsProcessed(),
+                job.getCreated(), job.getUpdated(), job.getSkipped(), job.getError(),
+                job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt());
+    }
+
+    private Map<String, Long> findIdsByPhone(Collection<String> phones) {
+        List<Map.Entry<String, Long>> rows = jdbcTemplate.query(FIND_IDS_BY_PHONE_SQL,
+                new MapSqlParameterSource("phones", phones),
+                (rs, rowNum) -> Map.entry(rs.getString("phone_e164"), rs.getLong("user_id")));
+
+        Map<String, Long> ids = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> ids.put(row.getKey(), row.getValue()));
+        return ids;
+    }
+
+    private static MapSqlParameterSource toParams(UserImportPipeline.PreparedRow row) {
+        return new MapSqlParameterSource()
+                .addValue("phone", row.phone())
+                .addValue("firstName", row.firstName())
+                .addValue("lastName", row.lastName())
+                .addValue("email", row.email())
+                .addValue("searchText", row.searchText());
     }
 
     @Transactional(readOnly = true)
     @Override
     public void exportCsv(Writer out) throws IOException {
-        CsvUtil.writeUsers(userRepo.findAll(), out);
+        try (Stream<SimpleUserDto> users = streamUsers()) {
+            CsvUtil.writeUsers(users, out);
+        }
     }
 
     @Transactional(readOnly = true)
     @Override
-    public byte[] exportXlsx() throws IOException {
-        return ExcelUtil.writeUsers(userRepo.findAll());
+    public void exportXlsx(OutputStream out) throws IOException {
+        try (Stream<SimpleUserDto> users = streamUsers()) {
+            ExcelUtil.writeUsers(users, out);
+        }
     }
 
+    /**
+     * Forward-only cursor over all users; with the read-only transaction (autocommit off) the
+     * Postgres driver fetches {@code export.fetch-size} rows per round trip instead of the whole table.
+     */
+    private Stream<SimpleUserDto> streamUsers() {
+        return jdbcTemplate.getJdbcTemplate().queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT_USERS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            return ps;
+        }, (rs, rowNum) -> new SimpleUserDto(
+                rs.getString("phone_number"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email")));
+    }
 }
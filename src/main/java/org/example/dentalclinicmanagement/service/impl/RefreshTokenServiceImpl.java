@@ -0,0 +1,87 @@
+package org.example.dentalclinicmanagement.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.exception.InvalidRefreshTokenException;
+import org.example.dentalclinicmanagement.model.RefreshToken;
+import org.example.dentalclinicmanagement.model.User;
+import org.example.dentalclinicmanagement.repository.RefreshTokenRepository;
+import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.service.RefreshTokenService;
+import org.example.dentalclinicmanagement.util.TokenHashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    @Value("${jwt.refresh-expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
+    @Override
+    @Transactional
+    public String createRefreshToken(Long userId) {
+        return issue(userRepository.getReferenceById(userId), UUID.randomUUID());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("refresh.token.invalid"));
+
+        if (current.isRevoked() || refreshTokenRepository.markRevoked(current.getId()) == 0) {
+            log.warn("Reuse of refresh token detected for user {}, revoking token family", current.getUser().getId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new InvalidRefreshTokenException("refresh.token.reused");
+        }
+        if (current.getExpiryDate().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException("refresh.token.expired");
+        }
+
+        User user = current.getUser();
+        String next = issue(user, current.getFamilyId());
+        log.debug("Refresh token rotated for user {}", user.getId());
+        return new Rotation(user, next);
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(userId);
+        log.info("Revoked {} refresh tokens for user {}", revoked, userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = refreshTokenRepository.deleteExpired(Instant.now());
+        log.info("Removed {} expired refresh tokens", removed);
+    }
+
+    private String issue(User user, UUID familyId) {
+        String raw = TokenHashUtil.randomUrlSafeToken(TOKEN_BYTES);
+        Instant expiryDate = Instant.now().plusMillis(refreshExpirationMs);
+        refreshTokenRepository.save(new RefreshToken(TokenHashUtil.sha256Hex(raw), familyId, expiryDate, user));
+        return raw;
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.dentalclinicmanagement.service.impl;
+
+import org.example.dentalclinicmanagement.dto.SimpleUserDto;
+import org.example.dentalclinicmanagement.util.PhoneUtil;
+import org.example.dentalclinicmanagement.util.SearchTextUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Three-stage user import: one parser thread cuts the file into numbered chunks, a pool of workers
+ * validates and normalizes them, and the calling thread hands them to the writer strictly in file
+ * order (so chunk checkpoints stay contiguous). Stages are linked by bounded queues, so a slow
+ * writer blocks the parser instead of buffering the file in memory.
+ */
+public class UserImportPipeline {
+
+    private static final RawChunk END = new RawChunk(-1, 0, List.of());
+    private static final long POLL_MS = 100;
+
+    private final int chunkSize;
+    private final int workers;
+    private final int queueCapacity;
+
+    public UserImportPipeline(int chunkSize, int workers, int queueCapacity) {
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @FunctionalInterface
+    public interface RowSource {
+        void forEach(Consumer<SimpleUserDto> sink) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ChunkWriter {
+        void write(PreparedChunk chunk);
+    }
+
+    public record PreparedRow(String phone, String firstName, String lastName, String email, String searchText) {
+    }
+
+    /**
+     * @param rowsProcessed source rows up to and including this chunk, for checkpointing
+     * @param rows          one row per distinct E.164 phone; the last occurrence in the chunk wins
+     * @param skipped       rows without a usable phone number
+     * @param duplicates    rows superseded by a later row with the same phone
+     */
+    public record PreparedChunk(long seq, long rowsProcessed, List<PreparedRow> rows, int skipped, int duplicates) {
+    }
+
+    private record RawChunk(long seq, long rowsProcessed, List<SimpleUserDto> rows) {
+    }
+
+    /**
+     * Runs the pipeline to completion on the calling thread (which acts as the writer stage).
+     *
+     * @param resumeAfter number of leading source rows to skip, already imported by an earlier run
+     * @return number of source rows read
+     */
+    public long run(RowSource source, long resumeAfter, ChunkWriter writer) throws IOException {
+        BlockingQueue<RawChunk> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<PreparedChunk> prepared = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong totalChunks = new AtomicLong(-1);
+        Parser parser = new Parser(parsed, resumeAfter);
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers + 1, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-stage-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            pool.execute(() -> {
+                try {
+                    source.forEach(parser);
+                    parser.emit();
+                    totalChunks.set(parser.seq);
+                    for (int i = 0; i < workers; i++) {
+                        parsed.put(END);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            for (int i = 0; i < workers; i++) {
+                pool.execute(() -> validate(parsed, prepared, failure));
+            }
+            writeInOrder(prepared, writer, failure, totalChunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return parser.rowsSeen;
+    }
+
+    private void validate(BlockingQueue<RawChunk> parsed, BlockingQueue<PreparedChunk> prepared,
+                          AtomicReference<Throwable> failure) {
+        try {
+            while (true) {
+                RawChunk raw = parsed.take();
+                if (raw == END) {
+                    return;
+                }
+                prepared.put(prepare(raw));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private static PreparedChunk prepare(RawChunk raw) {
+        Map<String, PreparedRow> byPhone = new LinkedHashMap<>();
+        int skipped = 0;
+        for (SimpleUserDto row : raw.rows()) {
+            String phone = PhoneUtil.toE164(row.phone());
+            if (phone == null) {
+                skipped++;
+                continue;
+            }
+            String email = (row.email() == null || row.email().isBlank())
+                    ? phone.replace("+", "") + "@import.local"
+                    : row.email().trim();
+            byPhone.put(phone, new PreparedRow(phone, row.firstName(), row.lastName(), email,
+                    SearchTextUtil.forUser(row.firstName(), row.lastName(), email)));
+        }
+        int duplicates = raw.rows().size() - skipped - byPhone.size();
+        return new PreparedChunk(raw.seq(), raw.rowsProcessed(), List.copyOf(byPhone.values()), skipped, duplicates);
+    }
+
+    private void writeInOrder(BlockingQueue<PreparedChunk> prepared, ChunkWriter writer,
+                              AtomicReference<Throwable> failure, AtomicLong totalChunks)
+            throws IOException, InterruptedException {
+        // chunks finished out of order wait here; bounded by the chunks in flight between the stages
+        Map<Long, PreparedChunk> pending = new HashMap<>();
+        long next = 0;
+        while (true) {
+            rethrow(failure.get());
+            long total = totalChunks.get();
+            if (total >= 0 && next == total) {
+                return;
+            }
+            PreparedChunk chunk = prepared.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            if (chunk == null) {
+                continue;
+            }
+            pending.put(chunk.seq(), chunk);
+            for (PreparedChunk ready = pending.remove(next); ready != null; ready = pending.remove(next)) {
+                writer.write(ready);
+                next++;
+            }
+        }
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof IOException io) {
+            throw io;
+        }
+        if (failure instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        throw new IOException(failure);
+    }
+
+    private class Parser implements Consumer<SimpleUserDto> {
+
+        private final BlockingQueue<RawChunk> parsed;
+        private final long resumeAfter;
+        private List<SimpleUserDto> batch = new ArrayList<>(chunkSize);
+        private volatile long rowsSeen;
+        private long seq;
+
+        Parser(BlockingQueue<RawChunk> parsed, long resumeAfter) {
+            this.parsed = parsed;
+            this.resumeAfter = resumeAfter;
+        }
+
+        @Override
+        public void accept(SimpleUserDto row) {
+            long seen = ++rowsSeen;
+            if (seen <= resumeAfter) {
+                return;
+            }
+            batch.add(row);
+            if (batch.size() >= chunkSize) {
+                emit();
+            }
+        }
+
+        void emit() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                parsed.put(new RawChunk(seq++, rowsSeen, batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // unwinds the CSV/SAX reader; the writer has already failed or been cancelled
+                throw new CancellationException("Import parser interrupted");
+            }
+            batch = new ArrayList<>(chunkSize);
+        }
+    }
+}
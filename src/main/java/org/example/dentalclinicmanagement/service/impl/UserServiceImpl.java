@@ -2,9 +2,11 @@ package org.example.dentalclinicmanagement.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dentalclinicmanagement.cache.SecurityVersionCache;
 import org.example.dentalclinicmanagement.dto.DentistProfileDto;
 import org.example.dentalclinicmanagement.dto.MinimalUserRegistrationDTO;
 import org.example.dentalclinicmanagement.dto.UserDto;
+import org.example.dentalclinicmanagement.dto.UserSliceDto;
 import org.example.dentalclinicmanagement.dto.request.ChangePasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.ForgotPasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.ResetPasswordRequest;
@@ -21,9 +23,14 @@ import org.example.dentalclinicmanagement.model.User;
 import org.example.dentalclinicmanagement.repository.DentistProfileRepository;
 import org.example.dentalclinicmanagement.repository.PasswordResetTokenRepository;
 import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.service.RefreshTokenService;
 import org.example.dentalclinicmanagement.service.UserService;
 import org.example.dentalclinicmanagement.util.EmailUtil;
+import org.example.dentalclinicmanagement.util.PhoneUtil;
+import org.example.dentalclinicmanagement.util.SearchTextUtil;
+import org.example.dentalclinicmanagement.util.TokenHashUtil;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -32,22 +39,28 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final int RESET_TOKEN_BYTES = 32;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final DentistProfileRepository dentistProfileRepository;
     private final EmailUtil emailUtils;
+    private final SecurityVersionCache securityVersionCache;
+    private final RefreshTokenService refreshTokenService;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
@@ -76,13 +89,97 @@ public class UserServiceImpl implements UserService {
         log.debug("Getting users with search: '{}' and filters: role={}, page={}, size={}",
                 search, role, page, size);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("email").ascending());
+        String normalized = SearchTextUtil.normalize(search);
+        if (normalized.isEmpty()) {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("email").ascending());
+            return userRepository.findUsersWithFilters(role, pageable).map(userMapper::toUserDTO);
+        }
 
-        Page<User> users = userRepository.findUsersWithFilters(search, role, pageable);
+        // ordering (similarity, then email) is part of the native query
+        Page<User> users = userRepository.searchUsers(
+                normalized,
+                SearchTextUtil.escapeLike(normalized),
+                role != null ? role.name() : null,
+                PageRequest.of(page, size));
 
         return users.map(userMapper::toUserDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public UserSliceDto scrollUsers(String cursor, int size, Role role, String search, boolean includeTotal) {
+        log.debug("Scrolling users: cursor={}, size={}, role={}, search='{}'", cursor, size, role, search);
+
+        UserCursor after = UserCursor.decode(cursor);
+        String normalized = SearchTextUtil.normalize(search);
+        // one extra row tells whether another slice exists without a COUNT
+        int limit = size + 1;
+
+        List<User> rows;
+        if (!normalized.isEmpty()) {
+            rows = userRepository.searchSlice(
+                    SearchTextUtil.escapeLike(normalized),
+                    role != null ? role.name() : null,
+                    after != null ? after.email() : null,
+                    after != null ? after.id() : null,
+                    limit);
+        } else if (after == null) {
+            rows = userRepository.findFirstSlice(role, Limit.of(limit));
+        } else {
+            rows = userRepository.findSliceAfter(role, after.email(), after.id(), Limit.of(limit));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<User> slice = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? UserCursor.of(slice.get(slice.size() - 1)).encode() : null;
+
+        Long total = includeTotal ? approximateUserCount(role, normalized) : null;
+
+        return new UserSliceDto(slice.stream().map(userMapper::toUserDTO).toList(), nextCursor, hasNext, total);
+    }
+
+    /**
+     * Total for the slice header without scanning the filtered set: planner estimates for the whole
+     * table or a common role, an exact count on the role index for roles too rare to be in the
+     * statistics, and nothing for free-text searches.
+     */
+    private Long approximateUserCount(Role role, String normalizedSearch) {
+        if (!normalizedSearch.isEmpty()) {
+            return null;
+        }
+        if (role != null) {
+            Long estimate = userRepository.estimateRowCountByRole(role.name());
+            return estimate != null ? estimate : (long) userRepository.countByRole(role);
+        }
+        long estimate = userRepository.estimateRowCount();
+        return estimate >= 0 ? estimate : null;
+    }
+
+    private record UserCursor(String email, Long id) {
+
+        static UserCursor of(User user) {
+            return new UserCursor(user.getEmail(), user.getId());
+        }
+
+        static UserCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('\n');
+                return new UserCursor(decoded.substring(0, separator), Long.parseLong(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((email + "\n" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
     @Override
     @Transactional
     public UserDto updateUserRole(Long userId, Role role) {
@@ -105,7 +202,9 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setRole(role);
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
         User updatedUser = userRepository.save(user);
+        securityVersionCache.put(userId, updatedUser.getSecurityVersion());
 
         if (role.equals(Role.DENTIST)) {
             Optional<DentistProfile> profileOptional = dentistProfileRepository.findByDentist(user);
@@ -140,7 +239,13 @@ public class UserServiceImpl implements UserService {
             existingUser.setLastName(request.getLastName().trim());
         }
         if (request.getPhoneNumber() != null) {
-            existingUser.setPhoneNumber(request.getPhoneNumber().trim());
+            String phone = request.getPhoneNumber().trim();
+            String e164 = PhoneUtil.toE164(phone);
+            if (e164 != null && userRepository.findByPhoneE164(e164)
+                    .filter(other -> !other.getId().equals(userId)).isPresent()) {
+                throw new IllegalArgumentException("Phone number is already in use");
+            }
+            existingUser.setPhoneNumber(phone);
         }
 
         User updatedUser = userRepository.save(existingUser);
@@ -159,6 +264,11 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
 
+        if (!user.isPasswordSet()) {
+            log.warn("Password change requested for user without a password: {}", userId);
+            throw new PasswordUpdateException("update.password.not.set");
+        }
+
         if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
             log.warn("Incorrect current password for user: {}", userId);
             throw new PasswordUpdateException("update.current.password.incorrect");
@@ -184,9 +294,9 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
-        String token = UUID.randomUUID().toString();
+        String token = TokenHashUtil.randomUrlSafeToken(RESET_TOKEN_BYTES);
         Instant expiryDate = Instant.now().plus(24, ChronoUnit.HOURS);
-        PasswordResetToken resetToken = new PasswordResetToken(token, expiryDate, user);
+        PasswordResetToken resetToken = new PasswordResetToken(TokenHashUtil.sha256(token), expiryDate, user);
         passwordResetTokenRepository.save(resetToken);
 
         String resetUrl = frontendUrl + "/reset-password?token=" + token;
@@ -200,7 +310,8 @@ public class UserServiceImpl implements UserService {
     public void resetPassword(ResetPasswordRequest request) {
         log.debug("Processing password reset for token: {}", request.getToken().substring(0, 8) + "...");
 
-        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(request.getToken())
+        PasswordResetToken resetToken = passwordResetTokenRepository
+                .findByTokenHash(TokenHashUtil.sha256(request.getToken()))
                 .orElseThrow(() -> new ResetPasswordException("reset.password.invalid"));
 
         if (resetToken.isUsed()) {
@@ -214,9 +325,12 @@ public class UserServiceImpl implements UserService {
 
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
         resetToken.setUsed(true);
         passwordResetTokenRepository.save(resetToken);
         userRepository.save(user);
+        securityVersionCache.put(user.getId(), user.getSecurityVersion());
+        refreshTokenService.revokeAllForUser(user.getId());
 
         log.info("Password successfully reset for user: {}", user.getEmail());
     }
@@ -263,17 +377,22 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto registerMinimalUser(MinimalUserRegistrationDTO dto) {
-        if (userRepository.existsByPhoneNumber(dto.getPhone())) {
+        String phone = PhoneUtil.toE164(dto.getPhone());
+        if (phone == null) {
+            throw new IllegalArgumentException("Invalid phone number: " + dto.getPhone());
+        }
+        if (userRepository.existsByPhoneE164(phone)) {
             throw new RuntimeException("User already exist!");
         }
 
+        // stored canonically, so the same number typed differently cannot register twice
         User user = new User();
-        user.setPhoneNumber(dto.getPhone());
+        user.setPhoneNumber(phone);
         user.setFirstName(dto.getFirstName());
         user.setLastName(dto.getLastName());
-        user.setEmail(dto.getPhone() + "@phone.com");
+        user.setEmail(phone + "@phone.com");
 
-        user.setPassword(passwordEncoder.encode("defaultPassword"));
+        user.setPassword(User.UNSET_PASSWORD);
         user.setRole(Role.USER);
 
         return userMapper.toUserDTO(userRepository.save(user));
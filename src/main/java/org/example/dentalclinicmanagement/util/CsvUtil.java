@@ -3,15 +3,18 @@ package org.example.dentalclinicmanagement.util;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.example.dentalclinicmanagement.dto.AppointmentExportDto;
 import org.example.dentalclinicmanagement.dto.SimpleUserDto;
-import org.example.dentalclinicmanagement.model.User;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class CsvUtil {
 
@@ -21,25 +24,55 @@ public class CsvUtil {
             .setSkipHeaderRecord(true)
             .get();
 
-    public static List<SimpleUserDto> readUsers(InputStream in) throws IOException {
+    private static final CSVFormat APPOINTMENT_FMT = CSVFormat.DEFAULT
+            .builder()
+            .setHeader("appointment_id", "appointment_time", "duration_minutes", "dentist", "dentist_email",
+                    "patient", "patient_phone", "patient_email", "comment")
+            .get();
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /**
+     * Parses records one at a time, so memory does not grow with the file size.
+     */
+    public static void forEachUser(InputStream in, Consumer<SimpleUserDto> sink) throws IOException {
         try (CSVParser p = FMT.parse(new InputStreamReader(in, StandardCharsets.UTF_8))) {
-            return p.getRecords().stream().map(r -> new SimpleUserDto(
-                    r.get("phone"),
-                    r.get("first_name"),
-                    r.get("last_name"),
-                    r.get("email")
-            )).toList();
+            for (CSVRecord r : p) {
+                sink.accept(new SimpleUserDto(
+                        r.get("phone"),
+                        r.get("first_name"),
+                        r.get("last_name"),
+                        r.get("email")
+                ));
+            }
         }
     }
 
-    public static void writeUsers(List<User> users, Writer out) throws IOException {
+    public static void writeUsers(Stream<SimpleUserDto> users, Writer out) throws IOException {
         try (CSVPrinter pr = new CSVPrinter(out, FMT)) {
-            for (User u : users) {
+            for (SimpleUserDto u : (Iterable<SimpleUserDto>) users::iterator) {
+                pr.printRecord(
+                        u.phone(),
+                        u.firstName(),
+                        u.lastName(),
+                        u.email());
+            }
+        }
+    }
+
+    public static void writeAppointments(Stream<AppointmentExportDto> appointments, Writer out) throws IOException {
+        try (CSVPrinter pr = new CSVPrinter(out, APPOINTMENT_FMT)) {
+            for (AppointmentExportDto a : (Iterable<AppointmentExportDto>) appointments::iterator) {
                 pr.printRecord(
-                        u.getPhoneNumber(),
-                        u.getFirstName(),
-                        u.getLastName(),
-                        u.getEmail());
+                        a.id(),
+                        DATE_TIME.format(a.appointmentTime()),
+                        a.durationMinutes(),
+                        a.dentistName(),
+                        a.dentistEmail(),
+                        a.patientName(),
+                        a.patientPhone(),
+                        a.patientEmail(),
+                        a.comment());
             }
         }
     }
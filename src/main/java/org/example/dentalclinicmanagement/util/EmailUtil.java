@@ -2,25 +2,28 @@ package org.example.dentalclinicmanagement.util;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.example.dentalclinicmanagement.model.OutboundEmail;
+import org.example.dentalclinicmanagement.repository.OutboundEmailRepository;
 import org.springframework.stereotype.Component;
 
+/**
+ * Queues mails in the {@code outbound_email} table. They are written in the caller's transaction
+ * and delivered later by {@code MailOutboxSender}, so no SMTP work happens on request threads.
+ */
 @Slf4j
 @Component
 @AllArgsConstructor
 public class EmailUtil {
-    private final JavaMailSender javaMailSender;
+    private final OutboundEmailRepository outboundEmailRepository;
 
     public void sendPasswordResetEmail(String to, String resetUrl) {
-        log.debug("Sending password reset email to: {}", to);
+        log.debug("Queueing password reset email to: {}", to);
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("Password Reset Request");
-        message.setText("Click the link to reset your password: " + resetUrl);
-        javaMailSender.send(message);
+        outboundEmailRepository.save(new OutboundEmail(
+                to,
+                "Password Reset Request",
+                "Click the link to reset your password: " + resetUrl));
 
-        log.info("Password reset email sent successfully to: {}", to);
+        log.info("Password reset email queued for: {}", to);
     }
 }
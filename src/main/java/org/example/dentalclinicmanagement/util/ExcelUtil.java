@@ -1,24 +1,94 @@
 package org.example.dentalclinicmanagement.util;
 
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.example.dentalclinicmanagement.dto.AppointmentExportDto;
 import org.example.dentalclinicmanagement.dto.SimpleUserDto;
-import org.example.dentalclinicmanagement.model.User;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
-import java.io.ByteArrayOutputStream;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class ExcelUtil {
 
     private static final String[] HEADERS =
             {"phone", "first_name", "last_name", "email"};
 
-    public static List<SimpleUserDto> readUsers(InputStream in) throws IOException {
-        List<SimpleUserDto> list = new ArrayList<>();
+    // in units of 1/256 of a character
+    private static final int[] COLUMN_WIDTHS = {18 * 256, 20 * 256, 20 * 256, 32 * 256};
 
+    private static final String[] APPOINTMENT_HEADERS = {"appointment_id", "appointment_time", "duration_minutes",
+            "dentist", "dentist_email", "patient", "patient_phone", "patient_email", "comment"};
+
+    private static final int[] APPOINTMENT_COLUMN_WIDTHS =
+            {14 * 256, 18 * 256, 16 * 256, 24 * 256, 32 * 256, 24 * 256, 18 * 256, 32 * 256, 48 * 256};
+
+    private static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm";
+
+    private static final int ROW_WINDOW = 100;
+
+    /**
+     * Emits rows of the first sheet one at a time. XLSX is read with the SAX event API (shared
+     * strings plus a sheet handler), so heap use does not depend on the row count; legacy XLS
+     * (at most 65536 rows) falls back to the workbook model.
+     */
+    public static void forEachUser(InputStream in, Consumer<SimpleUserDto> sink) throws IOException {
+        InputStream stream = FileMagic.prepareToCheckMagic(in);
+        if (FileMagic.valueOf(stream) == FileMagic.OOXML) {
+            readXlsx(stream, sink);
+        } else {
+            readWorkbook(stream, sink);
+        }
+    }
+
+    private static void readXlsx(InputStream in, Consumer<SimpleUserDto> sink) throws IOException {
+        // a file-backed package reads zip entries on demand instead of inflating them all into memory
+        Path tmp = Files.createTempFile("user-import-", ".xlsx");
+        try {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            try (OPCPackage pkg = OPCPackage.open(tmp.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            reader.getStylesTable(), strings, new UserRowHandler(sink), new PlainNumberFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid XLSX file", e);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void readWorkbook(InputStream in, Consumer<SimpleUserDto> sink) throws IOException {
         try (Workbook wb = WorkbookFactory.create(in)) {
             Sheet sh = wb.getSheetAt(0);
 
@@ -30,36 +100,78 @@ public class ExcelUtil {
                 String lastName = getString(row, 2);
                 String email = getString(row, 3);
 
-                list.add(new SimpleUserDto(phone, firstName, lastName, email));
+                sink.accept(new SimpleUserDto(phone, firstName, lastName, email));
             }
         }
-        return list;
     }
 
-    public static byte[] writeUsers(List<User> users) throws IOException {
-        try (Workbook wb = new XSSFWorkbook()) {
-            Sheet sh = wb.createSheet("Users");
+    /**
+     * Writes rows through an SXSSF window, so only {@link #ROW_WINDOW} rows are held in memory and
+     * the rest are flushed to a compressed temp file until the workbook is written out.
+     */
+    public static void writeUsers(Stream<SimpleUserDto> users, OutputStream out) throws IOException {
+        writeSheet("Users", HEADERS, COLUMN_WIDTHS, users, (wb, u, row) -> {
+            row.createCell(0).setCellValue(u.phone());
+            row.createCell(1).setCellValue(u.firstName());
+            row.createCell(2).setCellValue(u.lastName());
+            row.createCell(3).setCellValue(u.email());
+        }, out);
+    }
+
+    public static void writeAppointments(Stream<AppointmentExportDto> appointments, OutputStream out)
+            throws IOException {
+        CellStyle[] dateTime = new CellStyle[1];
+        writeSheet("Appointments", APPOINTMENT_HEADERS, APPOINTMENT_COLUMN_WIDTHS, appointments, (wb, a, row) -> {
+            if (dateTime[0] == null) {
+                // one shared style; a style per cell would exhaust the workbook's style table
+                dateTime[0] = wb.createCellStyle();
+                dateTime[0].setDataFormat(wb.createDataFormat().getFormat(DATE_TIME_FORMAT));
+            }
+            row.createCell(0).setCellValue(a.id());
+            Cell time = row.createCell(1);
+            time.setCellValue(a.appointmentTime());
+            time.setCellStyle(dateTime[0]);
+            if (a.durationMinutes() != null) {
+                row.createCell(2).setCellValue(a.durationMinutes());
+            }
+            row.createCell(3).setCellValue(a.dentistName());
+            row.createCell(4).setCellValue(a.dentistEmail());
+            row.createCell(5).setCellValue(a.patientName());
+            row.createCell(6).setCellValue(a.patientPhone());
+            row.createCell(7).setCellValue(a.patientEmail());
+            row.createCell(8).setCellValue(a.comment());
+        }, out);
+    }
+
+    private static <T> void writeSheet(String name, String[] headers, int[] widths, Stream<T> items,
+                                       RowWriter<T> rowWriter, OutputStream out) throws IOException {
+        SXSSFWorkbook wb = new SXSSFWorkbook(ROW_WINDOW);
+        wb.setCompressTempFiles(true);
+        try (wb) {
+            Sheet sh = wb.createSheet(name);
+
+            // autoSizeColumn needs every row in memory, which the window no longer keeps
+            for (int i = 0; i < headers.length; i++) sh.setColumnWidth(i, widths[i]);
 
             Row h = sh.createRow(0);
-            for (int i = 0; i < HEADERS.length; i++) h.createCell(i).setCellValue(HEADERS[i]);
+            for (int i = 0; i < headers.length; i++) h.createCell(i).setCellValue(headers[i]);
 
             int r = 1;
-            for (User u : users) {
-                Row row = sh.createRow(r++);
-                row.createCell(0).setCellValue(u.getPhoneNumber());
-                row.createCell(1).setCellValue(u.getFirstName());
-                row.createCell(2).setCellValue(u.getLastName());
-                row.createCell(3).setCellValue(u.getEmail());
+            for (T item : (Iterable<T>) items::iterator) {
+                rowWriter.write(wb, item, sh.createRow(r++));
             }
-            for (int i = 0; i < HEADERS.length; i++) sh.autoSizeColumn(i);
 
-            try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-                wb.write(bos);
-                return bos.toByteArray();
-            }
+            wb.write(out);
+        } finally {
+            wb.dispose();
         }
     }
 
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(Workbook wb, T item, Row row);
+    }
+
     private static String getString(Row row, int idx) {
         Cell c = row.getCell(idx, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
         return switch (c.getCellType()) {
@@ -69,4 +181,54 @@ public class ExcelUtil {
             default -> "";
         };
     }
+
+    /**
+     * Collects the first four cells of each data row; cells absent from the sheet XML stay blank.
+     */
+    private static class UserRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<SimpleUserDto> sink;
+        private final String[] values = new String[HEADERS.length];
+        private int nextColumn;
+
+        UserRowHandler(Consumer<SimpleUserDto> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, "");
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = col + 1;
+            if (col < values.length && formattedValue != null) {
+                values[col] = formattedValue.trim();
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum == 0) return;
+            sink.accept(new SimpleUserDto(values[0], values[1], values[2], values[3]));
+        }
+    }
+
+    /**
+     * Renders numeric cells as whole numbers like the workbook reader does, so phones stored as
+     * numbers do not come out in "General" scientific notation (3.80501E+11).
+     */
+    private static class PlainNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString)) {
+                return super.formatRawCellContents(value, formatIndex, formatString);
+            }
+            return String.valueOf((long) value);
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package org.example.dentalclinicmanagement.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Canonicalizes phone numbers to E.164 ({@code +<country code><number>}, at most 15 digits) so the
+ * same number written as {@code 050 123 45 67}, {@code +38 (050) 123-45-67} or a numeric spreadsheet
+ * cell ({@code 380501234567}) maps to one key. Numbers in national format are assumed to be Ukrainian,
+ * including bare 9-digit values: a spreadsheet cell holding {@code 0501234567} as a number drops its
+ * trunk zero, and reading {@code 501234567} as already international would yield a foreign number.
+ */
+public class PhoneUtil {
+
+    private static final String DEFAULT_COUNTRY_CODE = "380";
+    private static final String TRUNK_PREFIX = "0";
+    private static final String INTERNATIONAL_PREFIX = "00";
+    private static final int NATIONAL_NUMBER_LENGTH = 9;
+
+    private static final Pattern ALLOWED = Pattern.compile("^\\+?[\\d\\s().-]+$");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+    private static final Pattern E164_DIGITS = Pattern.compile("[1-9]\\d{6,14}");
+
+    /**
+     * @return the E.164 form, or {@code null} if the value is blank or not a plausible phone number
+     */
+    public static String toE164(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String value = raw.trim();
+        if (value.isEmpty() || !ALLOWED.matcher(value).matches()) {
+            return null;
+        }
+
+        String digits = NON_DIGITS.matcher(value).replaceAll("");
+        if (!value.startsWith("+")) {
+            if (digits.startsWith(INTERNATIONAL_PREFIX)) {
+                digits = digits.substring(INTERNATIONAL_PREFIX.length());
+            } else if (digits.startsWith(TRUNK_PREFIX)) {
+                digits = DEFAULT_COUNTRY_CODE + digits.substring(TRUNK_PREFIX.length());
+            } else if (digits.length() == NATIONAL_NUMBER_LENGTH) {
+                digits = DEFAULT_COUNTRY_CODE + digits;
+            }
+            // anything else already starts with a country code, e.g. a number cell that lost its '+'
+        }
+        return E164_DIGITS.matcher(digits).matches() ? "+" + digits : null;
+    }
+}
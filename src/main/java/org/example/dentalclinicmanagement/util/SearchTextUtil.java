@@ -0,0 +1,32 @@
+package org.example.dentalclinicmanagement.util;
+
+import java.util.Locale;
+
+/**
+ * Builds the normalized text that user search matches against. The same rules are
+ * mirrored in {@code schema.sql} for backfilling rows written before the column existed.
+ */
+public class SearchTextUtil {
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static String forUser(String firstName, String lastName, String email) {
+        return normalize(nullToEmpty(firstName) + " " + nullToEmpty(lastName) + " " + nullToEmpty(email));
+    }
+
+    /**
+     * Escapes LIKE wildcards so user input is matched literally (backslash is the Postgres default escape).
+     */
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
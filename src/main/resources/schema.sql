@@ -0,0 +1,29 @@
+-- Runs after Hibernate schema update (spring.jpa.defer-datasource-initialization); keep statements idempotent.
+
+-- One-off data migrations (here and in Java, e.g. PhoneE164Backfill) record completion here so they run once.
+CREATE TABLE IF NOT EXISTS data_migrations (name varchar(64) PRIMARY KEY, completed_at timestamp NOT NULL);
+
+-- Reset tokens are stored as SHA-256 hashes in token_hash; the raw token column is no longer used.
+ALTER TABLE password_reset_token DROP COLUMN IF EXISTS token;
+
+-- Admin user search: trigram index over the normalized search column (see SearchTextUtil).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+-- Rows written before the column existed are filled once; newer rows get it from User#refreshDerivedColumns.
+UPDATE users
+SET search_text = lower(regexp_replace(trim(coalesce(first_name, '') || ' ' || coalesce(last_name, '') || ' ' || coalesce(email, '')), '\s+', ' ', 'g'))
+WHERE search_text IS NULL
+  AND NOT EXISTS (SELECT 1 FROM data_migrations WHERE name = 'users_search_text_backfill');
+INSERT INTO data_migrations (name, completed_at) VALUES ('users_search_text_backfill', now())
+ON CONFLICT (name) DO NOTHING;
+CREATE INDEX IF NOT EXISTS idx_users_search_text_trgm ON users USING gin (search_text gin_trgm_ops);
+
+-- Outbox bodies hold reset links; they are cleared once a mail is sent or dead (see MailOutboxSender).
+ALTER TABLE outbound_email ALTER COLUMN body DROP NOT NULL;
+UPDATE outbound_email SET body = NULL
+WHERE status IN ('SENT', 'DEAD') AND body IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM data_migrations WHERE name = 'outbound_email_body_scrub');
+INSERT INTO data_migrations (name, completed_at) VALUES ('outbound_email_body_scrub', now())
+ON CONFLICT (name) DO NOTHING;
+
+-- Pending event ids of calendar cleanup jobs are looked up and deleted per job.
+CREATE INDEX IF NOT EXISTS idx_calendar_cleanup_events_job ON calendar_cleanup_events (job_id);
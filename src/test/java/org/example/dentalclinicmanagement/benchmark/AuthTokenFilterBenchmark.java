@@ -0,0 +1,90 @@
+package org.example.dentalclinicmanagement.benchmark;
+
+import org.example.dentalclinicmanagement.cache.SecurityVersionCache;
+import org.example.dentalclinicmanagement.model.Role;
+import org.example.dentalclinicmanagement.repository.RevokedTokenRepository;
+import org.example.dentalclinicmanagement.security.jwt.AuthTokenFilter;
+import org.example.dentalclinicmanagement.security.jwt.JwtUtils;
+import org.example.dentalclinicmanagement.security.jwt.TokenRevocationList;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of authenticating a request with a bearer token through {@link AuthTokenFilter}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.dentalclinicmanagement.benchmark.AuthTokenFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({"0", "10000"})
+    private int verifiedCacheSize;
+
+    private JwtUtils jwtUtils;
+    private AuthTokenFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "benchmark-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtils, "jwtIssuer", "dental-clinic");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", verifiedCacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "initializeKey");
+
+        SecurityVersionCache securityVersionCache = new SecurityVersionCache(null);
+        ReflectionTestUtils.setField(securityVersionCache, "ttlMs", TimeUnit.HOURS.toMillis(1));
+        securityVersionCache.put(USER_ID, 0);
+
+        TokenRevocationList revocationList = new TokenRevocationList(Mockito.mock(RevokedTokenRepository.class));
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 100_000);
+        ReflectionTestUtils.invokeMethod(revocationList, "initialize");
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "securityVersionCache", securityVersionCache);
+        ReflectionTestUtils.setField(filter, "revocationList", revocationList);
+
+        token = jwtUtils.generateTokenFromEmail("user@example.com", USER_ID, Role.USER, 0);
+    }
+
+    @Benchmark
+    public Object validateAndGetClaims() {
+        return jwtUtils.validateAndGetClaims(token);
+    }
+
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthTokenFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.dentalclinicmanagement.benchmark;
+
+import org.example.dentalclinicmanagement.service.impl.UserImportPipeline;
+import org.example.dentalclinicmanagement.util.CsvUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to parse, validate and hand a CSV of {@code rows} users to the writer stage of
+ * {@link UserImportPipeline} with a growing number of validation workers. The writer only
+ * consumes the prepared rows, so the result isolates the CPU-bound stages from the database.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.dentalclinicmanagement.benchmark.UserImportPipelineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserImportPipelineBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int QUEUE_CAPACITY = 4;
+
+    @Param("1000000")
+    private int rows;
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csv = Files.createTempFile("users-bench", ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            out.write("phone,first_name,last_name,email\n");
+            for (int i = 0; i < rows; i++) {
+                out.write("+38050" + (1_000_000 + i) + ",Ivan" + (i % 1000) + ",Petrenko " + (i % 10000) + ",");
+                if (i % 2 == 0) {
+                    out.write("user" + i + "@example.com");
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public long importCsv(Blackhole blackhole) throws IOException {
+        UserImportPipeline pipeline = new UserImportPipeline(CHUNK_SIZE, workers, QUEUE_CAPACITY);
+        try (InputStream in = Files.newInputStream(csv)) {
+            return pipeline.run(sink -> CsvUtil.forEachUser(in, sink), 0, blackhole::consume);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserImportPipelineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.dentalclinicmanagement.benchmark;
+
+import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.util.SearchTextUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one page of the admin user search against Postgres, comparing the trigram
+ * query in {@link UserRepository#SEARCH_QUERY} with the previous {@code UPPER(...) LIKE} scan.
+ * Connects with the application's {@code DB_URL}, {@code DB_USERNAME} and {@code DB_PASSWORD}
+ * and seeds {@code users} rows into a separate {@code user_search_bench} schema on first run.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.dentalclinicmanagement.benchmark.UserSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final String SCHEMA = "user_search_bench";
+    private static final int PAGE_SIZE = 10;
+
+    private static final String LEGACY_QUERY = "SELECT u.* FROM users u WHERE " +
+            "(UPPER(u.first_name) LIKE UPPER(CONCAT('%', ?, '%')) OR " +
+            " UPPER(u.last_name) LIKE UPPER(CONCAT('%', ?, '%')) OR " +
+            " UPPER(CONCAT(u.first_name, ' ', u.last_name)) LIKE UPPER(CONCAT('%', ?, '%')) OR " +
+            " UPPER(u.email) LIKE UPPER(CONCAT('%', ?, '%'))) " +
+            "ORDER BY u.email LIMIT " + PAGE_SIZE;
+
+    private static final String TRIGRAM_QUERY = UserRepository.SEARCH_QUERY
+            .replace(":search", "?")
+            .replace(":pattern", "?")
+            .replace("CAST(:role AS varchar) IS NULL OR u.role = CAST(:role AS varchar)", "TRUE")
+            + " LIMIT " + PAGE_SIZE;
+
+    @Param("1000000")
+    private int users;
+
+    @Param({"trigram", "legacy"})
+    private String query;
+
+    @Param({"ivan", "petrenko 4217", "user98765@"})
+    private String search;
+
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getenv("DB_URL"), System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"));
+        seed();
+
+        String normalized = SearchTextUtil.normalize(search);
+        if ("trigram".equals(query)) {
+            statement = connection.prepareStatement(TRIGRAM_QUERY);
+            statement.setString(1, SearchTextUtil.escapeLike(normalized));
+            statement.setString(2, normalized);
+        } else {
+            statement = connection.prepareStatement(LEGACY_QUERY);
+            for (int i = 1; i <= 4; i++) {
+                statement.setString(i, search);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void searchPage(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong("user_id"));
+            }
+        }
+    }
+
+    private void seed() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            st.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA);
+            st.execute("CREATE TABLE IF NOT EXISTS users (user_id bigint PRIMARY KEY, email varchar(255) NOT NULL, " +
+                    "first_name varchar(255) NOT NULL, last_name varchar(255) NOT NULL, role varchar(255) NOT NULL, " +
+                    "search_text varchar(1024))");
+
+            try (ResultSet rs = st.executeQuery("SELECT count(*) FROM users")) {
+                rs.next();
+                if (rs.getLong(1) >= users) {
+                    return;
+                }
+            }
+
+            st.execute("TRUNCATE users");
+            st.execute("INSERT INTO users (user_id, email, first_name, last_name, role) " +
+                    "SELECT g, 'user' || g || '@example.com', " +
+                    "(ARRAY['Ivan','Olena','Petro','Maria','Andrii','Iryna','Taras','Oksana'])[1 + g % 8] || (g % 1000), " +
+                    "(ARRAY['Petrenko','Shevchenko','Kovalenko','Bondarenko','Tkachenko'])[1 + g % 5] || ' ' || (g % 10000), " +
+                    "'USER' FROM generate_series(1, " + users + ") g");
+            st.execute("UPDATE users SET search_text = lower(first_name || ' ' || last_name || ' ' || email)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_bench_users_search_text_trgm " +
+                    "ON users USING gin (search_text gin_trgm_ops)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_bench_users_email ON users (email)");
+            st.execute("ANALYZE users");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.dentalclinicmanagement.job;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.example.dentalclinicmanagement.model.OutboundEmail;
+import org.example.dentalclinicmanagement.model.OutboundEmailStatus;
+import org.example.dentalclinicmanagement.repository.OutboundEmailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailOutboxSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private OutboundEmailRepository outboundEmailRepository;
+
+    private JavaMailSenderImpl mailSender;
+    private MailOutboxSender sender;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        sender = new MailOutboxSender(outboundEmailRepository, mailSender);
+        ReflectionTestUtils.setField(sender, "from", "clinic@example.com");
+        ReflectionTestUtils.setField(sender, "batchSize", 50);
+        ReflectionTestUtils.setField(sender, "maxAttempts", 3);
+        ReflectionTestUtils.setField(sender, "retryBaseDelayMs", 1000L);
+    }
+
+    @Test
+    void sendDueMessages_DeliversWholeBatch() throws Exception {
+        List<OutboundEmail> batch = List.of(
+                email(1L, "first@example.com"),
+                email(2L, "second@example.com"),
+                email(3L, "third@example.com"));
+        when(outboundEmailRepository.lockDueBatch(any(Instant.class), eq(50))).thenReturn(batch);
+
+        sender.sendDueMessages();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Password Reset Request", received[0].getSubject());
+        assertTrue(batch.stream().allMatch(email ->
+                email.getStatus() == OutboundEmailStatus.SENT && email.getSentAt() != null && email.getBody() == null));
+        verify(outboundEmailRepository).saveAll(batch);
+    }
+
+    @Test
+    void sendDueMessages_SmtpUnavailable_SchedulesRetry() {
+        mailSender.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        OutboundEmail email = email(1L, "user@example.com");
+        Instant before = Instant.now();
+        when(outboundEmailRepository.lockDueBatch(any(Instant.class), eq(50))).thenReturn(List.of(email));
+
+        sender.sendDueMessages();
+
+        assertEquals(OutboundEmailStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertEquals("Click the link", email.getBody());
+        assertTrue(email.getNextAttemptAt().isAfter(before));
+        assertNotNull(email.getLastError());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void sendDueMessages_LastAttemptFails_MovesToDeadLetter() {
+        mailSender.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        OutboundEmail email = email(1L, "user@example.com");
+        email.setAttempts(2);
+        when(outboundEmailRepository.lockDueBatch(any(Instant.class), eq(50))).thenReturn(List.of(email));
+
+        sender.sendDueMessages();
+
+        assertEquals(OutboundEmailStatus.DEAD, email.getStatus());
+        assertEquals(3, email.getAttempts());
+        assertNull(email.getBody());
+    }
+
+    @Test
+    void sendDueMessages_NothingDue_DoesNotTouchSmtp() {
+        when(outboundEmailRepository.lockDueBatch(any(Instant.class), anyInt())).thenReturn(List.of());
+
+        sender.sendDueMessages();
+
+        verify(outboundEmailRepository, never()).saveAll(any());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void purgeSentMessages_RemovesOldSentAndDeadMails() {
+        ReflectionTestUtils.setField(sender, "sentRetentionDays", 7);
+        ReflectionTestUtils.setField(sender, "deadRetentionDays", 30);
+
+        sender.purgeSentMessages();
+
+        verify(outboundEmailRepository).deleteByStatusBefore(eq(OutboundEmailStatus.SENT), any(Instant.class));
+        verify(outboundEmailRepository).deleteByStatusCreatedBefore(eq(OutboundEmailStatus.DEAD), any(Instant.class));
+    }
+
+    private OutboundEmail email(Long id, String recipient) {
+        OutboundEmail email = new OutboundEmail(recipient, "Password Reset Request", "Click the link");
+        email.setId(id);
+        return email;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.dentalclinicmanagement.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhoneE164BackfillTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PhoneE164Backfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new PhoneE164Backfill(jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(backfill, "batchSize", 10);
+    }
+
+    @Test
+    void backfill_AlreadyCompleted_SkipsTableWalk() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq("phone_e164_backfill")))
+                .thenReturn(true);
+
+        backfill.backfill();
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfill_CollidingPair_LeavesSecondUnsetAndRecordsCompletion() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq("phone_e164_backfill")))
+                .thenReturn(false);
+        when(jdbcTemplate.query(startsWith("SELECT user_id"), any(RowMapper.class), eq(0L), eq(10)))
+                .thenAnswer(inv -> mapRows(inv.getArgument(1), new Object[][]{
+                        {1L, "+380501234567"}, {2L, "050 123 45 67"}, {3L, "n/a"}}));
+        when(jdbcTemplate.query(startsWith("SELECT user_id"), any(RowMapper.class), eq(3L), eq(10)))
+                .thenReturn(List.of());
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE users"), anyList())).thenReturn(new int[]{1, 0});
+
+        backfill.backfill();
+
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE users"), args.capture());
+        assertEquals(2, args.getValue().size());
+        assertArrayEquals(new Object[]{"+380501234567", 2L, "+380501234567"}, args.getValue().get(1));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO data_migrations"), eq("phone_e164_backfill"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> mapRows(RowMapper<?> mapper, Object[][] rows) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        List<Object> mapped = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            when(rs.getLong("user_id")).thenReturn((Long) rows[i][0]);
+            when(rs.getString("phone_number")).thenReturn((String) rows[i][1]);
+            mapped.add(mapper.mapRow(rs, i));
+        }
+        return mapped;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.dentalclinicmanagement.resilience;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarCallGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CalendarCallGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new CalendarCallGuard(meterRegistry);
+
+        ReflectionTestUtils.setField(guard, "maxConcurrentCalls", 2);
+        ReflectionTestUtils.setField(guard, "queueCapacity", 2);
+        ReflectionTestUtils.setField(guard, "callTimeoutMs", 300L);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(guard, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(guard, "minimumNumberOfCalls", 4);
+        ReflectionTestUtils.setField(guard, "openStateMs", 60000L);
+        ReflectionTestUtils.setField(guard, "halfOpenCalls", 1);
+        ReflectionTestUtils.invokeMethod(guard, "initialize");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(guard, "shutdown");
+    }
+
+    @Test
+    void execute_Success_ReturnsResultAndRecordsLatency() throws Exception {
+        String result = guard.execute("list", () -> "ok");
+
+        assertEquals("ok", result);
+        assertEquals(1, meterRegistry.get("calendar.client.requests")
+                .tag("operation", "list")
+                .tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    void execute_RepeatedIoFailures_OpensCircuitAndFailsFast() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IOException.class, () -> guard.execute("patch", () -> {
+                throw new IOException("connection reset");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+        assertThrows(CallNotPermittedException.class, () -> guard.execute("patch", () -> "ok"));
+    }
+
+    @Test
+    void execute_ClientErrors_DoNotOpenCircuit() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpResponseException.class, () -> guard.execute("patch", () -> {
+                throw new HttpResponseException.Builder(404, "Not Found", new HttpHeaders()).build();
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void execute_SlowCall_TimesOut() {
+        assertThrows(TimeoutException.class, () -> guard.execute("insert", () -> {
+            Thread.sleep(2000);
+            return "late";
+        }));
+    }
+}
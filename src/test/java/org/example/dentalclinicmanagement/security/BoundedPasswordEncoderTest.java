@@ -0,0 +1,110 @@
+package org.example.dentalclinicmanagement.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dentalclinicmanagement.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_DelegateOnWorkerThread() {
+        encoder = new BoundedPasswordEncoder(new ThreadNamingEncoder(), meterRegistry, 1, 4, 1000);
+
+        assertTrue(encoder.encode("secret").startsWith("password-hash-"));
+        assertTrue(encoder.matches("secret", "secret"));
+        assertEquals(1, meterRegistry.get("password.hashing.latency").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void matches_UnsetPassword_ReturnsFalseWithoutWorker() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), meterRegistry, 1, 1, 50);
+
+        assertFalse(encoder.matches("anything", ""));
+        assertEquals(0, meterRegistry.get("password.hashing.latency").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_PoolSaturated_RejectsImmediately() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), meterRegistry, 1, 1, 10_000);
+        CompletableFuture.runAsync(() -> encoder.encode("running"));
+        CompletableFuture.runAsync(() -> encoder.encode("queued"));
+        waitForQueueDepth(1);
+
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("rejected"));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejections").counter().count());
+    }
+
+    @Test
+    void matches_SlowerThanTimeout_ThrowsUnavailable() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), meterRegistry, 1, 1, 50);
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.matches("secret", "hash"));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("password.hashing.queue.depth").gauge().value() < depth) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Queue never reached depth " + depth);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static class ThreadNamingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return true;
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.dentalclinicmanagement.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.example.dentalclinicmanagement.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256";
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtUtils, "jwtIssuer", "dental-clinic");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", 2);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "initializeKey");
+    }
+
+    @Test
+    void validateAndGetClaims_RepeatedToken_ServedFromCache() {
+        String token = jwtUtils.generateTokenFromEmail("user@example.com", 1L, Role.USER, 0);
+
+        Claims first = jwtUtils.validateAndGetClaims(token);
+        Claims second = jwtUtils.validateAndGetClaims(token);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals("user@example.com", second.getSubject());
+    }
+
+    @Test
+    void validateAndGetClaims_TamperedToken_ReturnsNull() {
+        String token = jwtUtils.generateTokenFromEmail("user@example.com", 1L, Role.USER, 0);
+        jwtUtils.validateAndGetClaims(token);
+
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signatureStart) + replacement + token.substring(signatureStart + 1);
+
+        assertNull(jwtUtils.validateAndGetClaims(tampered));
+    }
+
+    @Test
+    void validateAndGetClaims_AfterKeyRotation_RejectsCachedToken() {
+        String token = jwtUtils.generateTokenFromEmail("user@example.com", 1L, Role.USER, 0);
+        assertNotNull(jwtUtils.validateAndGetClaims(token));
+
+        jwtUtils.rotateSecret("rotated-secret-key-that-is-long-enough-for-hs256");
+
+        assertNull(jwtUtils.validateAndGetClaims(token));
+    }
+
+    @Test
+    void validateAndGetClaims_CacheFull_StaysBounded() {
+        for (long id = 1; id <= 5; id++) {
+            String token = jwtUtils.generateTokenFromEmail("user" + id + "@example.com", id, Role.USER, 0);
+            assertNotNull(jwtUtils.validateAndGetClaims(token));
+        }
+
+        VerifiedTokenCache cache = (VerifiedTokenCache) ReflectionTestUtils.getField(jwtUtils, "verifiedTokens");
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    void getPrincipalFromClaims_LegacyToken_ReturnsNull() {
+        Claims claims = jwtUtils.validateAndGetClaims(
+                Jwts.builder()
+                        .setIssuer("dental-clinic")
+                        .setSubject("user@example.com")
+                        .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                        .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                        .compact());
+
+        assertNotNull(claims);
+        assertNull(jwtUtils.getPrincipalFromClaims(claims));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.dentalclinicmanagement.security.jwt;
+
+import org.example.dentalclinicmanagement.model.RevokedToken;
+import org.example.dentalclinicmanagement.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(revokedTokenRepository);
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 1000);
+    }
+
+    @Test
+    void initialize_LoadsStoredRevocations() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(new RevokedToken("stored-jti", Instant.now().plusSeconds(60))));
+
+        ReflectionTestUtils.invokeMethod(revocationList, "initialize");
+
+        assertTrue(revocationList.isRevoked("stored-jti"));
+        assertFalse(revocationList.isRevoked("other-jti"));
+    }
+
+    @Test
+    void revoke_ThenFlush_PersistsNewEntriesOnce() {
+        ReflectionTestUtils.invokeMethod(revocationList, "initialize");
+
+        revocationList.revoke("jti-1", Instant.now().plusSeconds(60));
+        revocationList.revoke("jti-1", Instant.now().plusSeconds(60));
+        revocationList.flush();
+        revocationList.flush();
+
+        assertTrue(revocationList.isRevoked("jti-1"));
+        verify(revokedTokenRepository, times(1)).saveAll(anyList());
+        verify(revokedTokenRepository, times(2)).deleteExpired(any());
+    }
+
+    @Test
+    void revoke_AlreadyExpiredToken_IsIgnored() {
+        ReflectionTestUtils.invokeMethod(revocationList, "initialize");
+
+        revocationList.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        assertFalse(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    void bloomFilter_HasNoFalseNegatives() {
+        TokenRevocationList.BloomFilter filter = new TokenRevocationList.BloomFilter(1000, 0.01);
+        List<String> values = IntStream.range(0, 1000)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .toList();
+
+        values.forEach(filter::put);
+
+        assertTrue(values.stream().allMatch(filter::mightContain));
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.dentalclinicmanagement.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AuthRateLimitFilter(meterRegistry, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "ipCapacity", 10);
+        ReflectionTestUtils.setField(filter, "ipRefillTokens", 10);
+        ReflectionTestUtils.setField(filter, "ipRefillPeriodMs", 60_000L);
+        ReflectionTestUtils.setField(filter, "accountCapacity", 2);
+        ReflectionTestUtils.setField(filter, "accountRefillTokens", 2);
+        ReflectionTestUtils.setField(filter, "accountRefillPeriodMs", 60_000L);
+        ReflectionTestUtils.setField(filter, "maxTrackedKeys", 100);
+        ReflectionTestUtils.setField(filter, "maxBodyBytes", 1024);
+        ReflectionTestUtils.invokeMethod(filter, "initialize");
+    }
+
+    @Test
+    void doFilter_AccountLimitExceeded_Returns429WithRetryAfter() throws Exception {
+        assertEquals(200, signIn("user@example.com", "10.0.0.1").getStatus());
+        assertEquals(200, signIn("USER@example.com", "10.0.0.2").getStatus());
+
+        MockHttpServletResponse rejected = signIn("user@example.com", "10.0.0.3");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("auth.rate_limit.rejections").tag("scope", "account").counter().count());
+    }
+
+    @Test
+    void doFilter_IpLimitExceeded_Returns429() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, signIn("user" + i + "@example.com", "10.0.0.1").getStatus());
+        }
+
+        assertEquals(429, signIn("other@example.com", "10.0.0.1").getStatus());
+        assertEquals(1.0, meterRegistry.get("auth.rate_limit.rejections").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    void doFilter_BodyStillReadableDownstream() throws Exception {
+        MockHttpServletRequest request = signInRequest("user@example.com", "10.0.0.1");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("user@example.com"));
+    }
+
+    @Test
+    void doFilter_OversizedBody_Returns413WithoutCallingChain() throws Exception {
+        MockHttpServletRequest request = signInRequest("user@example.com", "10.0.0.1");
+        request.setContent(new byte[2048]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_OtherEndpoint_NotLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/reset-password");
+            request.setServletPath("/api/auth/reset-password");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    private MockHttpServletResponse signIn(String email, String ip) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(signInRequest(email, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest signInRequest(String email, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/sign-in");
+        request.setServletPath("/api/auth/sign-in");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
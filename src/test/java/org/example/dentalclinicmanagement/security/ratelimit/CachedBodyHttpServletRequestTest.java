@@ -0,0 +1,80 @@
+package org.example.dentalclinicmanagement.security.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedBodyHttpServletRequestTest {
+
+    @Test
+    void setReadListener_BufferedBody_DeliversDataThenCompletion() throws Exception {
+        CachedBodyHttpServletRequest request = cached("{\"email\":\"user@example.com\"}");
+        ServletInputStream in = request.getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer);
+                    received.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals("{\"email\":\"user@example.com\"}", received.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void setReadListener_EmptyBody_CompletesImmediately() throws Exception {
+        List<String> events = new ArrayList<>();
+
+        cached("").getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                events.add("data");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("done"), events);
+    }
+
+    private CachedBodyHttpServletRequest cached(String body) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/signin");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return new CachedBodyHttpServletRequest(request, 1024);
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.dentalclinicmanagement.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_BurstUpToCapacity_ThenRejects() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 1000, 100, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertEquals(0, limiter.tryAcquire("key"));
+
+        long retryAfter = limiter.tryAcquire("key");
+        assertTrue(retryAfter > 0 && retryAfter <= 1000, "retryAfter=" + retryAfter);
+    }
+
+    @Test
+    void tryAcquire_AfterRefillPeriod_AllowsAgain() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1000, 100, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertTrue(limiter.tryAcquire("key") > 0);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertEquals(0, limiter.tryAcquire("key"));
+    }
+
+    @Test
+    void tryAcquire_KeysAreIndependent() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1000, 100, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("first"));
+        assertEquals(0, limiter.tryAcquire("second"));
+        assertTrue(limiter.tryAcquire("first") > 0);
+    }
+
+    @Test
+    void tryAcquire_TooManyKeys_EvictsRefilledBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1000, 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.tryAcquire("c");
+
+        assertEquals(1, limiter.trackedKeys());
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.dentalclinicmanagement.service.impl;
+
+import org.example.dentalclinicmanagement.dto.AppointmentExportDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentExportServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AppointmentExportServiceImpl appointmentExportService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportCsv_WritesHeaderAndRowsAndClosesCursor() throws Exception {
+        boolean[] closed = new boolean[1];
+        Stream<AppointmentExportDto> rows = Stream.of(
+                new AppointmentExportDto(7L, LocalDateTime.of(2026, 9, 1, 9, 30), 30,
+                        "Anna Dentist", "anna@clinic.com", "Ivan Petrenko", "+380500000001",
+                        "ivan@example.com", "Filling, upper left"),
+                new AppointmentExportDto(8L, LocalDateTime.of(2026, 9, 1, 10, 0), null,
+                        "Anna Dentist", "anna@clinic.com", "Olena Shevchenko", "+380500000002",
+                        "olena@example.com", null)
+        ).onClose(() -> closed[0] = true);
+        when(jdbcTemplate.queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(rows);
+
+        StringWriter out = new StringWriter();
+        appointmentExportService.exportCsv(LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 30), 3L, out);
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("appointment_id,appointment_time,duration_minutes,dentist,dentist_email,"
+                + "patient,patient_phone,patient_email,comment", lines[0]);
+        assertEquals("7,2026-09-01 09:30,30,Anna Dentist,anna@clinic.com,Ivan Petrenko,+380500000001,"
+                + "ivan@example.com,\"Filling, upper left\"", lines[1]);
+        assertEquals("8,2026-09-01 10:00,,Anna Dentist,anna@clinic.com,Olena Shevchenko,+380500000002,"
+                + "olena@example.com,", lines[2]);
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    void exportCsv_InvertedRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentExportService.exportCsv(
+                LocalDate.of(2026, 9, 30), LocalDate.of(2026, 9, 1), null, new StringWriter()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void validateRange_InvertedRange_ThrowsWithoutQuerying() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentExportService.validateRange(
+                LocalDate.of(2026, 9, 30), LocalDate.of(2026, 9, 1)));
+        assertDoesNotThrow(() -> appointmentExportService.validateRange(
+                LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 1)));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
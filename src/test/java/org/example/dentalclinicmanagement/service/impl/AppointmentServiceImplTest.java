@@ -12,6 +12,7 @@ import org.example.dentalclinicmanagement.mapper.AppointmentMapper;
 import org.example.dentalclinicmanagement.model.*;
 import org.example.dentalclinicmanagement.repository.AppointmentRepository;
 import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.security.AuthorizationContext;
 import org.example.dentalclinicmanagement.service.CalendarService;
 import org.example.dentalclinicmanagement.service.ClinicSettingsService;
 import org.junit.jupiter.api.BeforeEach;
@@ -176,6 +177,31 @@ class AppointmentServiceImplTest {
         assertEquals("You can only book appointments for yourself", exception.getMessage());
     }
 
+    @Test
+    void bookSlot_PrivilegedContext_AllowsBookingForOthers() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(dentist));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(client));
+        when(appointmentRepository.findByDentistAndAppointmentTime(dentist, bookSlotRequest.getSlotTime()))
+                .thenReturn(Optional.empty());
+        when(settingsService.getSettings()).thenReturn(settings);
+        when(appointmentRepository.countByClientAndStatusAndAppointmentTimeBetween(any(), any(), any(), any()))
+                .thenReturn(0L);
+        when(appointmentRepository.countByClientAndCreatedAtBetween(any(), any(), any()))
+                .thenReturn(0L);
+        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+
+        AuthorizationContext.set(new AuthorizationContext(3L, Role.MANAGER, Role.MANAGER.isPrivileged()));
+        try {
+            AppointmentDto result = appointmentService.bookSlot(bookSlotRequest, "manager@example.com");
+
+            assertNotNull(result);
+            verify(appointmentRepository).save(any(Appointment.class));
+        } finally {
+            AuthorizationContext.clear();
+        }
+    }
+
     @Test
     void cancelAppointment_Success() {
         when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
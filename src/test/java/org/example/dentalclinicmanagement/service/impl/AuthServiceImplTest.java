@@ -1,5 +1,7 @@
 package org.example.dentalclinicmanagement.service.impl;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.example.dentalclinicmanagement.dto.request.LoginRequest;
 import org.example.dentalclinicmanagement.dto.request.SignupRequest;
 import org.example.dentalclinicmanagement.dto.response.JwtResponse;
@@ -8,7 +10,9 @@ import org.example.dentalclinicmanagement.model.Role;
 import org.example.dentalclinicmanagement.model.User;
 import org.example.dentalclinicmanagement.repository.UserRepository;
 import org.example.dentalclinicmanagement.security.jwt.JwtUtils;
+import org.example.dentalclinicmanagement.security.jwt.TokenRevocationList;
 import org.example.dentalclinicmanagement.security.service.UserDetailsImpl;
+import org.example.dentalclinicmanagement.service.RefreshTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +24,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,6 +50,12 @@ class AuthServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationList revocationList;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -80,11 +92,13 @@ class AuthServiceImplTest {
                 .thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(userDetails);
         when(jwtUtils.generateJwtToken(userDetails)).thenReturn(expectedJwt);
+        when(refreshTokenService.createRefreshToken(1L)).thenReturn("refresh-token");
 
         JwtResponse response = authService.authenticateUser(loginRequest);
 
         assertNotNull(response);
         assertEquals(expectedJwt, response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
         assertEquals(userDetails.getId(), response.getId());
         assertEquals(userDetails.getEmail(), response.getEmail());
         assertEquals(List.of("ROLE_USER"), response.getRoles());
@@ -151,6 +165,22 @@ class AuthServiceImplTest {
         verify(authenticationManager, never()).authenticate(any());
     }
 
+    @Test
+    void registerAndLogin_PhoneHeldInAnotherFormat_ThrowsPhoneInUse() {
+        signupRequest.setPhoneNumber("+1 234-567-890");
+        when(userRepository.existsByEmail(signupRequest.getEmail())).thenReturn(false);
+        when(userRepository.existsByPhoneE164("+1234567890")).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> authService.registerAndLogin(signupRequest)
+        );
+
+        assertEquals("Phone number is already in use", exception.getMessage());
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(passwordEncoder);
+    }
+
     @Test
     void registerAndLogin_CreatesUserWithCorrectDefaultRole() {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
@@ -183,4 +213,31 @@ class AuthServiceImplTest {
                 savedUser.getPassword().equals("encoded-password")
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    void refreshToken_ValidToken_IssuesNewTokenPair() {
+        when(refreshTokenService.rotate("old-refresh")).thenReturn(new RefreshTokenService.Rotation(user, "new-refresh"));
+        when(jwtUtils.generateJwtToken(any(UserDetailsImpl.class))).thenReturn("new-jwt");
+
+        JwtResponse response = authService.refreshToken("old-refresh");
+
+        assertEquals("new-jwt", response.getToken());
+        assertEquals("new-refresh", response.getRefreshToken());
+        assertEquals(1L, response.getId());
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void logout_RevokesRefreshFamilyAndAccessToken() {
+        Instant expiresAt = Instant.now().plusSeconds(300);
+        Claims claims = Jwts.claims();
+        claims.setId("jti-1");
+        claims.setExpiration(Date.from(expiresAt));
+        when(jwtUtils.validateAndGetClaims("access-token")).thenReturn(claims);
+
+        authService.logout("refresh-token", "access-token");
+
+        verify(refreshTokenService).revoke("refresh-token");
+        verify(revocationList).revoke(eq("jti-1"), any(Instant.class));
+    }
+}
@@ -1,10 +1,23 @@
 package org.example.dentalclinicmanagement.service.impl;
 
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+import org.example.dentalclinicmanagement.cache.CalendarAccessCache;
+import org.example.dentalclinicmanagement.dto.CalendarCleanupStatusDto;
 import org.example.dentalclinicmanagement.dto.CalendarEventDto;
+import org.example.dentalclinicmanagement.job.CalendarCleanupJobs;
 import org.example.dentalclinicmanagement.model.*;
 import org.example.dentalclinicmanagement.repository.AppointmentCalendarLinkRepository;
+import org.example.dentalclinicmanagement.repository.CalendarCleanupJobRepository;
 import org.example.dentalclinicmanagement.repository.GoogleCredentialRepository;
+import org.example.dentalclinicmanagement.resilience.CalendarCallGuard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +25,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +55,21 @@ class GoogleCalendarServiceImplTest {
     @Mock
     private AppointmentCalendarLinkRepository linkRepository;
 
+    @Mock
+    private CalendarAccessCache accessCache;
+
+    @Mock
+    private CalendarCallGuard callGuard;
+
+    @Mock
+    private CalendarCleanupJobs cleanupJobs;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CalendarCleanupJobRepository cleanupJobRepository;
+
     @InjectMocks
     private GoogleCalendarServiceImpl calendarService;
 
@@ -157,6 +196,7 @@ class GoogleCalendarServiceImplTest {
 
     @Test
     void hasCalendarAccess_NoCredentials_ReturnsFalse() {
+        when(accessCache.getIfPresent(1L)).thenReturn(null);
         when(credentialRepository.findByUser(client)).thenReturn(Optional.empty());
 
         boolean result = calendarService.hasCalendarAccess(client);
@@ -214,10 +254,333 @@ class GoogleCalendarServiceImplTest {
 
     @Test
     void hasCalendarAccess_CatchesAndHandlesExceptions() {
+        when(accessCache.getIfPresent(1L)).thenReturn(null);
         when(credentialRepository.findByUser(client)).thenReturn(Optional.of(credential));
 
         boolean result = calendarService.hasCalendarAccess(client);
 
         assertNotNull(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void hasCalendarAccess_CachedStatus_SkipsLookup() {
+        when(accessCache.getIfPresent(1L)).thenReturn(true);
+
+        boolean result = calendarService.hasCalendarAccess(client);
+
+        assertTrue(result);
+        verify(credentialRepository, never()).findByUser(any());
+    }
+
+    @Test
+    void hasCalendarAccess_NoCredentials_CachesNegativeStatus() {
+        when(accessCache.getIfPresent(1L)).thenReturn(null);
+        when(credentialRepository.findByUser(client)).thenReturn(Optional.empty());
+
+        calendarService.hasCalendarAccess(client);
+
+        verify(accessCache).put(1L, false);
+    }
+
+    @Test
+    void storeCredentials_InvalidatesCachedAccessStatus() {
+        when(credentialRepository.findByUser(client)).thenReturn(Optional.of(credential));
+        when(credentialRepository.save(any(GoogleCredential.class))).thenReturn(credential);
+
+        calendarService.storeCredentials(client, "access-token", "refresh-token", 3600000L);
+
+        verify(accessCache).invalidate(1L);
+    }
+
+    @Test
+    void unlinkCalendar_RemovesCredentialsAndInvalidatesCache() {
+        when(credentialRepository.findByUser(client)).thenReturn(Optional.of(credential));
+
+        calendarService.unlinkCalendar(client);
+
+        verify(credentialRepository).delete(credential);
+        verify(linkRepository).deleteAllByUserId(1L);
+        verify(accessCache).invalidate(1L);
+    }
+
+    @Test
+    void unlinkCalendar_NoLinkedEvents_DoesNotStartCleanup() {
+        when(credentialRepository.findByUser(client)).thenReturn(Optional.of(credential));
+        when(linkRepository.findGoogleEventIdsByUserId(1L)).thenReturn(List.of());
+
+        CalendarCleanupStatusDto result = calendarService.unlinkCalendar(client);
+
+        assertNull(result);
+        verifyNoInteractions(cleanupJobs);
+    }
+
+    @Test
+    void unlinkCalendar_WithLinkedEvents_PersistsJobAndStartsBackgroundCleanup() {
+        when(credentialRepository.findByUser(client)).thenReturn(Optional.of(credential));
+        when(linkRepository.findGoogleEventIdsByUserId(1L)).thenReturn(List.of("event-1", "event-2"));
+        when(cleanupJobRepository.save(any(CalendarCleanupJob.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CalendarCleanupStatusDto result = calendarService.unlinkCalendar(client);
+
+        assertNotNull(result);
+        assertEquals("PENDING", result.state());
+        assertEquals(2, result.total());
+        verify(linkRepository).deleteAllByUserId(1L);
+        verify(cleanupJobRepository).save(argThat(job ->
+                job.getPendingEventIds().equals(List.of("event-1", "event-2"))
+                        && "refresh-token".equals(job.getRefreshToken())
+                        && job.getUserId().equals(1L)));
+        verify(cleanupJobs).submit(any());
+    }
+
+    @Test
+    void getCleanupStatus_OtherUsersJob_ReturnsNull() {
+        UUID jobId = UUID.randomUUID();
+        CalendarCleanupJob job = new CalendarCleanupJob(jobId, credential, 2L, List.of("event-1"));
+        when(cleanupJobRepository.findById(jobId)).thenReturn(Optional.of(job));
+
+        assertNull(calendarService.getCleanupStatus(client, jobId));
+    }
+
+    @Test
+    void runCleanup_BatchFails_KeepsEventsPendingAndFinishesWithErrors() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        CalendarCleanupJob job = new CalendarCleanupJob(jobId, credential, 1L, List.of("event-1", "event-2"));
+        when(cleanupJobRepository.claim(eq(jobId), eq(CalendarCleanupStatus.PENDING),
+                eq(CalendarCleanupStatus.RUNNING), any())).thenReturn(1);
+        when(cleanupJobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        when(cleanupJobRepository.findPendingEventIds(jobId)).thenReturn(List.of("event-1", "event-2"));
+        when(callGuard.execute(eq("batchDelete"), any())).thenThrow(new IOException("timeout"));
+        runInTransactionWithoutResult();
+
+        calendarService.runCleanup(jobId);
+
+        verify(cleanupJobRepository, never()).deletePendingEvents(any(), any());
+        verify(cleanupJobRepository).recordProgress(jobId, 0, 2);
+        verify(cleanupJobRepository).finish(eq(jobId), eq(CalendarCleanupStatus.COMPLETED_WITH_ERRORS), any());
+    }
+
+    @Test
+    void runCleanup_AlreadyClaimed_DoesNothing() {
+        UUID jobId = UUID.randomUUID();
+        when(cleanupJobRepository.claim(eq(jobId), any(), any(), any())).thenReturn(0);
+
+        calendarService.runCleanup(jobId);
+
+        verify(cleanupJobRepository, never()).findPendingEventIds(any());
+        verify(cleanupJobRepository, never()).finish(any(), any(), any());
+    }
+
+    @Test
+    void resumeCleanupJobs_RequeuesInterruptedAndSubmitsPending() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(cleanupJobRepository.requeueRunning(CalendarCleanupStatus.RUNNING, CalendarCleanupStatus.PENDING))
+                .thenReturn(1);
+        when(cleanupJobRepository.findIdsByStatus(CalendarCleanupStatus.PENDING)).thenReturn(List.of(first, second));
+
+        calendarService.resumeCleanupJobs();
+
+        verify(cleanupJobs, times(2)).submit(any());
+    }
+
+    @Test
+    void pullRemoteChanges_NoCredentials_DoesNothing() {
+        when(credentialRepository.findByUser_Id(1L)).thenReturn(Optional.empty());
+
+        calendarService.pullRemoteChanges(1L);
+
+        verifyNoInteractions(linkRepository);
+    }
+
+    @Test
+    void pullRemoteChanges_Bootstrap_StoresSyncTokenWithoutReconciling() throws Exception {
+        when(credentialRepository.findByUser_Id(1L)).thenReturn(Optional.of(credential));
+        runInTransaction();
+        when(callGuard.execute(eq("sync"), any())).thenReturn(new Events().setNextSyncToken("sync-token-1"));
+
+        calendarService.pullRemoteChanges(1L);
+
+        assertEquals("sync-token-1", credential.getSyncToken());
+        verify(credentialRepository).save(credential);
+        verify(linkRepository, never()).findByUserIdAndGoogleEventIdIn(any(), any());
+    }
+
+    @Test
+    void pullRemoteChanges_CancelledEvent_FlagsLinkAsRemotelyDeleted() throws Exception {
+        credential.setSyncToken("sync-token-1");
+        calendarLink.setEtag("\"etag-1\"");
+        Event cancelled = new Event().setId("google-event-id").setStatus("cancelled").setEtag("\"etag-2\"");
+
+        when(credentialRepository.findByUser_Id(1L)).thenReturn(Optional.of(credential));
+        runInTransaction();
+        when(callGuard.execute(eq("sync"), any())).thenReturn(new Events()
+                .setItems(List.of(cancelled))
+                .setNextSyncToken("sync-token-2"));
+        when(linkRepository.findByUserIdAndGoogleEventIdIn(eq(1L), any())).thenReturn(List.of(calendarLink));
+
+        calendarService.pullRemoteChanges(1L);
+
+        assertEquals(CalendarLinkState.REMOTE_DELETED, calendarLink.getState());
+        assertEquals("sync-token-2", credential.getSyncToken());
+        verify(linkRepository).saveAll(List.of(calendarLink));
+    }
+
+    @Test
+    void pullRemoteChanges_SeveralPages_ReconcilesOnceAfterFetching() throws Exception {
+        credential.setSyncToken("sync-token-1");
+        Event first = new Event().setId("event-1").setStatus("confirmed").setEtag("\"etag-1\"");
+        Event second = new Event().setId("event-2").setStatus("cancelled").setEtag("\"etag-2\"");
+
+        when(credentialRepository.findByUser_Id(1L)).thenReturn(Optional.of(credential));
+        runInTransaction();
+        when(callGuard.execute(eq("sync"), any())).thenReturn(
+                new Events().setItems(List.of(first)).setNextPageToken("page-2"),
+                new Events().setItems(List.of(second)).setNextSyncToken("sync-token-2"));
+        when(linkRepository.findByUserIdAndGoogleEventIdIn(eq(1L), any())).thenReturn(List.of());
+
+        calendarService.pullRemoteChanges(1L);
+
+        verify(callGuard, times(2)).execute(eq("sync"), any());
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(linkRepository).findByUserIdAndGoogleEventIdIn(eq(1L), argThat(ids ->
+                ids.containsAll(List.of("event-1", "event-2"))));
+        assertEquals("sync-token-2", credential.getSyncToken());
+    }
+
+    @Test
+    void pullRemoteChanges_FetchFails_DoesNotOpenTransaction() throws Exception {
+        credential.setSyncToken("sync-token-1");
+        when(credentialRepository.findByUser_Id(1L)).thenReturn(Optional.of(credential));
+        when(callGuard.execute(eq("sync"), any())).thenThrow(new IOException("timeout"));
+
+        calendarService.pullRemoteChanges(1L);
+
+        verifyNoInteractions(transactionTemplate);
+        assertEquals("sync-token-1", credential.getSyncToken());
+    }
+
+    @Test
+    void pullRemoteChanges_OwnChange_LeavesLinkSynced() throws Exception {
+        credential.setSyncToken("sync-token-1");
+        calendarLink.setEtag("\"etag-1\"");
+        Event unchanged = new Event().setId("google-event-id").setStatus("confirmed").setEtag("\"etag-1\"");
+
+        when(credentialRepository.findByUser_Id(1L)).thenReturn(Optional.of(credential));
+        runInTransaction();
+        when(callGuard.execute(eq("sync"), any())).thenReturn(new Events()
+                .setItems(List.of(unchanged))
+                .setNextSyncToken("sync-token-2"));
+        when(linkRepository.findByUserIdAndGoogleEventIdIn(eq(1L), any())).thenReturn(List.of(calendarLink));
+
+        calendarService.pullRemoteChanges(1L);
+
+        assertEquals(CalendarLinkState.SYNCED, calendarLink.getState());
+    }
+
+    @Test
+    void updateExistingEvent_SendsSinglePatchWithStoredEtag() throws Exception {
+        calendarLink.setEtag("\"etag-1\"");
+        RecordingTransport transport = new RecordingTransport()
+                .respond(200, "{\"id\":\"google-event-id\",\"etag\":\"\\\"etag-2\\\"\"}");
+        runCallsThroughGuard();
+
+        CalendarEventDto result = ReflectionTestUtils.invokeMethod(
+                calendarService, "updateExistingEvent", transport.calendar(), calendarLink, appointment);
+
+        assertNotNull(result);
+        assertEquals("updated", result.getStatus());
+        assertEquals(1, transport.requests.size());
+        assertTrue(transport.requests.get(0).getUrl().contains("/events/google-event-id"));
+        assertEquals("\"etag-1\"", transport.requests.get(0).getFirstHeaderValue("If-Match"));
+        assertEquals("\"etag-2\"", calendarLink.getEtag());
+        assertEquals(CalendarLinkState.SYNCED, calendarLink.getState());
+        verify(linkRepository).save(calendarLink);
+    }
+
+    @Test
+    void updateExistingEvent_PreconditionFailed_FlagsConflictWithoutOverwriting() throws Exception {
+        calendarLink.setEtag("\"etag-1\"");
+        RecordingTransport transport = new RecordingTransport()
+                .respond(412, "{\"error\":{\"code\":412,\"message\":\"Precondition Failed\"}}");
+        runCallsThroughGuard();
+
+        CalendarEventDto result = ReflectionTestUtils.invokeMethod(
+                calendarService, "updateExistingEvent", transport.calendar(), calendarLink, appointment);
+
+        assertNotNull(result);
+        assertEquals("conflict", result.getStatus());
+        assertEquals(1, transport.requests.size());
+        assertEquals("\"etag-1\"", transport.requests.get(0).getFirstHeaderValue("If-Match"));
+        assertEquals("\"etag-1\"", calendarLink.getEtag());
+        assertEquals(CalendarLinkState.REMOTE_MODIFIED, calendarLink.getState());
+        verify(linkRepository).save(calendarLink);
+        verify(linkRepository, never()).delete(any());
+    }
+
+    @Test
+    void updateExistingEvent_EventGone_RecreatesEventAndRelinks() throws Exception {
+        calendarLink.setEtag("\"etag-1\"");
+        RecordingTransport transport = new RecordingTransport()
+                .respond(404, "{\"error\":{\"code\":404,\"message\":\"Not Found\"}}")
+                .respond(200, "{\"id\":\"new-event-id\",\"etag\":\"\\\"etag-9\\\"\"}");
+        runCallsThroughGuard();
+
+        CalendarEventDto result = ReflectionTestUtils.invokeMethod(
+                calendarService, "updateExistingEvent", transport.calendar(), calendarLink, appointment);
+
+        assertNotNull(result);
+        assertEquals("created", result.getStatus());
+        assertEquals("new-event-id", result.getEventId());
+        verify(linkRepository).delete(calendarLink);
+        verify(linkRepository).save(argThat(link ->
+                link.getAppointmentId().equals(1L)
+                        && "new-event-id".equals(link.getGoogleEventId())
+                        && "\"etag-9\"".equals(link.getEtag())));
+    }
+
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private void runInTransactionWithoutResult() {
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private void runCallsThroughGuard() throws Exception {
+        when(callGuard.execute(anyString(), any())).thenAnswer(inv -> inv.<Callable<?>>getArgument(1).call());
+    }
+
+    /**
+     * Serves queued canned responses and keeps every request it was given.
+     */
+    private static class RecordingTransport extends MockHttpTransport {
+        private final Deque<MockLowLevelHttpResponse> responses = new ArrayDeque<>();
+        private final List<MockLowLevelHttpRequest> requests = new ArrayList<>();
+
+        RecordingTransport respond(int status, String body) {
+            responses.add(new MockLowLevelHttpResponse()
+                    .setStatusCode(status)
+                    .setContentType(Json.MEDIA_TYPE)
+                    .setContent(body));
+            return this;
+        }
+
+        Calendar calendar() {
+            return new Calendar.Builder(this, GsonFactory.getDefaultInstance(), null)
+                    .setApplicationName("test")
+                    .build();
+        }
+
+        @Override
+        public LowLevelHttpRequest buildRequest(String method, String url) {
+            MockLowLevelHttpRequest request = new MockLowLevelHttpRequest(url)
+                    .setResponse(responses.removeFirst());
+            requests.add(request);
+            return request;
+        }
+    }
+}
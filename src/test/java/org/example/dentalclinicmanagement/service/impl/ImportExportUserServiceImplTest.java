@@ -0,0 +1,245 @@
+package org.example.dentalclinicmanagement.service.impl;
+
+import org.example.dentalclinicmanagement.dto.ImportJobDto;
+import org.example.dentalclinicmanagement.job.ImportJobRunner;
+import org.example.dentalclinicmanagement.model.ImportJob;
+import org.example.dentalclinicmanagement.model.ImportJobStatus;
+import org.example.dentalclinicmanagement.model.ImportMode;
+import org.example.dentalclinicmanagement.repository.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportExportUserServiceImplTest {
+
+    private static final String[] CSV = {
+            "phone,first_name,last_name,email",
+            "+380500000001,Ivan,Petrenko,",
+            "+380500000002,Olena,Shevchenko,olena@example.com",
+            "+380500000003,Petro,Kovalenko,petro@example.com",
+            "+380500000003,Petro,Kovalenko,petro.k@example.com",
+            ",No,Phone,nophone@example.com"
+    };
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private ImportJobRunner importJobRunner;
+
+    @InjectMocks
+    private ImportExportUserServiceImpl importExportUserService;
+
+    @TempDir
+    Path uploadDir;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(importExportUserService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importExportUserService, "workers", 2);
+        ReflectionTestUtils.setField(importExportUserService, "queueCapacity", 2);
+        ReflectionTestUtils.setField(importExportUserService, "uploadDir", uploadDir.toString());
+
+        lenient().doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().doAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return null;
+        }).when(importJobRunner).submit(any());
+        lenient().when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(inv -> {
+                    Collection<String> phones = (Collection<String>) ((MapSqlParameterSource) inv.getArgument(1))
+                            .getValue("phones");
+                    return phones.contains("+380500000002")
+                            ? List.of(Map.entry("+380500000002", 42L))
+                            : List.of();
+                });
+    }
+
+    @Test
+    void submitImport_Csv_CommitsAndCheckpointsPerChunk() throws Exception {
+        ImportJob[] saved = new ImportJob[1];
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(inv -> saved[0] = inv.getArgument(0));
+        when(importJobRepository.claim(any(), any(), eq(ImportJobStatus.RUNNING), any())).thenReturn(1);
+        when(importJobRepository.findById(any())).thenAnswer(inv -> Optional.of(saved[0]));
+
+        ImportJobDto result = importExportUserService.submitImport(csv(CSV), "users.csv", ImportMode.INCREMENTAL);
+
+        UUID jobId = result.jobId();
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(importJobRepository).recordProgress(jobId, 2, 1, 1, 0);
+        verify(importJobRepository).recordProgress(jobId, 4, 1, 1, 0);
+        verify(importJobRepository).recordProgress(jobId, 5, 0, 0, 1);
+        verify(importJobRepository).finish(eq(jobId), eq(ImportJobStatus.COMPLETED), isNull(), any());
+        assertFalse(Files.exists(Path.of(saved[0].getStoredPath())));
+
+        ArgumentCaptor<SqlParameterSource[]> batches = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), batches.capture());
+
+        SqlParameterSource[] firstInserts = batches.getAllValues().get(0);
+        assertEquals(1, firstInserts.length);
+        assertEquals("380500000001@import.local", firstInserts[0].getValue("email"));
+        assertEquals("ivan petrenko 380500000001@import.local", firstInserts[0].getValue("searchText"));
+
+        SqlParameterSource[] lastInserts = batches.getAllValues().get(2);
+        assertEquals(1, lastInserts.length);
+        assertEquals("petro.k@example.com", lastInserts[0].getValue("email"));
+    }
+
+    @Test
+    void submitImport_ChunkFails_MarksJobFailedAndKeepsFile() throws Exception {
+        ImportJob[] saved = new ImportJob[1];
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(inv -> saved[0] = inv.getArgument(0));
+        when(importJobRepository.claim(any(), any(), eq(ImportJobStatus.RUNNING), any())).thenReturn(1);
+        when(importJobRepository.findById(any())).thenAnswer(inv -> Optional.of(saved[0]));
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate email"));
+
+        ImportJobDto result = importExportUserService.submitImport(csv(CSV), "users.csv", ImportMode.INCREMENTAL);
+
+        verify(importJobRepository).finish(eq(result.jobId()), eq(ImportJobStatus.FAILED), eq("duplicate email"), any());
+        verify(importJobRepository, never()).recordProgress(any(), anyLong(), anyInt(), anyInt(), anyInt());
+        assertTrue(Files.exists(Path.of(saved[0].getStoredPath())));
+    }
+
+    @Test
+    void resumeImport_FailedJob_SkipsCommittedRows() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        Path stored = uploadDir.resolve(jobId + ".csv");
+        Files.writeString(stored, String.join("\n", CSV));
+
+        ImportJob job = new ImportJob(jobId, "users.csv", stored.toString(), ImportMode.INCREMENTAL);
+        job.setStatus(ImportJobStatus.FAILED);
+        job.setRowsProcessed(2);
+        job.setCreated(1);
+        job.setUpdated(1);
+        when(importJobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        when(importJobRepository.claim(eq(jobId), any(), eq(ImportJobStatus.RUNNING), any())).thenReturn(1);
+
+        importExportUserService.resumeImport(jobId);
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        verify(importJobRepository, never()).recordProgress(eq(jobId), eq(2L), anyInt(), anyInt(), anyInt());
+        verify(importJobRepository).recordProgress(jobId, 4, 1, 1, 0);
+        verify(importJobRepository).recordProgress(jobId, 5, 0, 0, 1);
+        verify(importJobRepository).finish(eq(jobId), eq(ImportJobStatus.COMPLETED), isNull(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitImport_BulkMode_CopiesIntoStagingAndMergesOnce() throws Exception {
+        ImportJob[] saved = new ImportJob[1];
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(inv -> saved[0] = inv.getArgument(0));
+        when(importJobRepository.claim(any(), any(), eq(ImportJobStatus.RUNNING), any())).thenReturn(1);
+        when(importJobRepository.findById(any())).thenAnswer(inv -> Optional.of(saved[0]));
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+        CopyIn copyIn = mock(CopyIn.class);
+        ByteArrayOutputStream copied = new ByteArrayOutputStream();
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(jdbc);
+        doNothing().when(jdbc).execute(anyString());
+        when(jdbc.execute(any(ConnectionCallback.class))).thenAnswer(inv ->
+                ((ConnectionCallback<Object>) inv.getArgument(0)).doInConnection(connection));
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(startsWith("COPY user_import_staging"))).thenReturn(copyIn);
+        doAnswer(inv -> {
+            copied.write(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(jdbcTemplate.queryForObject(startsWith("WITH merged"), any(SqlParameterSource.class), eq(Integer.class)))
+                .thenReturn(2);
+
+        ImportJobDto result = importExportUserService.submitImport(csv(CSV), "users.csv", ImportMode.BULK);
+
+        UUID jobId = result.jobId();
+        assertEquals("BULK", result.mode());
+        verify(jdbc).execute(startsWith("CREATE TEMP TABLE user_import_staging"));
+        verify(copyIn).endCopy();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verify(importJobRepository).recordProgress(jobId, 5, 2, 2, 1);
+        verify(importJobRepository, never()).finish(any(), eq(ImportJobStatus.FAILED), any(), any());
+        verify(importJobRepository).finish(eq(jobId), eq(ImportJobStatus.COMPLETED), isNull(), any());
+
+        String[] staged = copied.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, staged.length);
+        assertEquals("\"0\",\"+380500000001\",\"Ivan\",\"Petrenko\",\"380500000001@import.local\","
+                + "\"ivan petrenko 380500000001@import.local\"", staged[0]);
+        assertTrue(staged[2].startsWith("\"2\",\"+380500000003\""));
+        assertTrue(staged[2].contains("\"petro.k@example.com\""));
+    }
+
+    @Test
+    void resumeImport_CompletedJob_ThrowsException() {
+        UUID jobId = UUID.randomUUID();
+        ImportJob job = new ImportJob(jobId, "users.csv", "/tmp/none.csv", ImportMode.INCREMENTAL);
+        job.setStatus(ImportJobStatus.COMPLETED);
+        when(importJobRepository.findById(jobId)).thenReturn(Optional.of(job));
+
+        assertThrows(IllegalStateException.class, () -> importExportUserService.resumeImport(jobId));
+        verifyNoInteractions(importJobRunner);
+    }
+
+    @Test
+    void submitImport_UnsupportedFormat_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importExportUserService.submitImport(csv("phone"), "users.txt", ImportMode.INCREMENTAL));
+        verifyNoInteractions(importJobRepository, jdbcTemplate);
+    }
+
+    private static InputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.dentalclinicmanagement.service.impl;
+
+import org.example.dentalclinicmanagement.exception.InvalidRefreshTokenException;
+import org.example.dentalclinicmanagement.model.RefreshToken;
+import org.example.dentalclinicmanagement.model.Role;
+import org.example.dentalclinicmanagement.model.User;
+import org.example.dentalclinicmanagement.repository.RefreshTokenRepository;
+import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.service.RefreshTokenService;
+import org.example.dentalclinicmanagement.util.TokenHashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    private User user;
+    private RefreshToken storedToken;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationMs", 60_000L);
+
+        user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+        user.setRole(Role.USER);
+
+        storedToken = new RefreshToken(TokenHashUtil.sha256Hex("raw-token"), UUID.randomUUID(),
+                Instant.now().plus(1, ChronoUnit.DAYS), user);
+        storedToken.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void createRefreshToken_StoresOnlyHash() {
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        String raw = refreshTokenService.createRefreshToken(1L);
+
+        assertNotNull(raw);
+        verify(refreshTokenRepository).save(argThat(token ->
+                token.getTokenHash().equals(TokenHashUtil.sha256Hex(raw)) &&
+                        !token.getTokenHash().equals(raw) &&
+                        token.getUser().equals(user)
+        ));
+    }
+
+    @Test
+    void rotate_ValidToken_IssuesTokenInSameFamily() {
+        when(refreshTokenRepository.findByTokenHash(storedToken.getTokenHash())).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.markRevoked(storedToken.getId())).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw-token");
+
+        assertEquals(user, rotation.user());
+        assertNotEquals("raw-token", rotation.refreshToken());
+        verify(refreshTokenRepository).save(argThat(token ->
+                token.getFamilyId().equals(storedToken.getFamilyId()) && !token.isRevoked()
+        ));
+    }
+
+    @Test
+    void rotate_RevokedToken_RevokesWholeFamily() {
+        storedToken.setRevoked(true);
+        when(refreshTokenRepository.findByTokenHash(storedToken.getTokenHash())).thenReturn(Optional.of(storedToken));
+
+        InvalidRefreshTokenException exception = assertThrows(
+                InvalidRefreshTokenException.class,
+                () -> refreshTokenService.rotate("raw-token")
+        );
+
+        assertEquals("refresh.token.reused", exception.getMessage());
+        verify(refreshTokenRepository).revokeFamily(storedToken.getFamilyId());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_ConcurrentRotation_TreatedAsReuse() {
+        when(refreshTokenRepository.findByTokenHash(storedToken.getTokenHash())).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.markRevoked(storedToken.getId())).thenReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("raw-token"));
+
+        verify(refreshTokenRepository).revokeFamily(storedToken.getFamilyId());
+    }
+
+    @Test
+    void rotate_ExpiredToken_ThrowsException() {
+        storedToken.setExpiryDate(Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHash(storedToken.getTokenHash())).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.markRevoked(storedToken.getId())).thenReturn(1);
+
+        InvalidRefreshTokenException exception = assertThrows(
+                InvalidRefreshTokenException.class,
+                () -> refreshTokenService.rotate("raw-token")
+        );
+
+        assertEquals("refresh.token.expired", exception.getMessage());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_UnknownToken_ThrowsException() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+}
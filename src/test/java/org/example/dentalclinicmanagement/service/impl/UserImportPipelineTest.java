@@ -0,0 +1,92 @@
+package org.example.dentalclinicmanagement.service.impl;
+
+import org.example.dentalclinicmanagement.dto.SimpleUserDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportPipelineTest {
+
+    @Test
+    void run_ManyChunks_WritesInFileOrderWithContiguousCheckpoints() throws IOException {
+        UserImportPipeline pipeline = new UserImportPipeline(7, 4, 2);
+        List<UserImportPipeline.PreparedChunk> written = new ArrayList<>();
+
+        long rows = pipeline.run(sink -> {
+            for (int i = 0; i < 1000; i++) {
+                String phone = i % 10 == 0 ? (i % 20 == 0 ? "" : "n/a") : " 050 " + (1_000_000 + i) + " ";
+                sink.accept(new SimpleUserDto(phone, "First" + i, "Last" + i, ""));
+            }
+        }, 0, written::add);
+
+        assertEquals(1000, rows);
+        assertEquals(143, written.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(i, written.get(i).seq());
+        }
+        assertEquals(7, written.get(0).rowsProcessed());
+        assertEquals(1000, written.get(written.size() - 1).rowsProcessed());
+
+        int imported = written.stream().mapToInt(c -> c.rows().size()).sum();
+        int skipped = written.stream().mapToInt(UserImportPipeline.PreparedChunk::skipped).sum();
+        assertEquals(900, imported);
+        assertEquals(100, skipped);
+
+        UserImportPipeline.PreparedRow first = written.get(0).rows().get(0);
+        assertEquals("+380501000001", first.phone());
+        assertEquals("380501000001@import.local", first.email());
+        assertEquals("first1 last1 380501000001@import.local", first.searchText());
+    }
+
+    @Test
+    void run_Resume_SkipsCommittedRowsAndCollapsesDuplicatePhones() throws IOException {
+        UserImportPipeline pipeline = new UserImportPipeline(10, 2, 2);
+        List<UserImportPipeline.PreparedChunk> written = new ArrayList<>();
+
+        pipeline.run(sink -> {
+            for (int i = 0; i < 25; i++) {
+                sink.accept(new SimpleUserDto("+380500000000", "First" + i, "Last", "user" + i + "@example.com"));
+            }
+        }, 20, written::add);
+
+        assertEquals(1, written.size());
+        UserImportPipeline.PreparedChunk chunk = written.get(0);
+        assertEquals(25, chunk.rowsProcessed());
+        assertEquals(1, chunk.rows().size());
+        assertEquals(4, chunk.duplicates());
+        assertEquals("user24@example.com", chunk.rows().get(0).email());
+    }
+
+    @Test
+    void run_ParserFails_PropagatesAndStopsStages() {
+        UserImportPipeline pipeline = new UserImportPipeline(5, 2, 1);
+        List<UserImportPipeline.PreparedChunk> written = new ArrayList<>();
+
+        IOException ex = assertThrows(IOException.class, () -> pipeline.run(sink -> {
+            for (int i = 0; i < 12; i++) {
+                sink.accept(new SimpleUserDto("+38050" + (1_000_000 + i), "First", "Last", ""));
+            }
+            throw new IOException("Malformed row 13");
+        }, 0, written::add));
+
+        assertEquals("Malformed row 13", ex.getMessage());
+        assertTrue(written.size() <= 2);
+    }
+
+    @Test
+    void run_WriterFails_PropagatesWriterException() {
+        UserImportPipeline pipeline = new UserImportPipeline(5, 2, 1);
+
+        assertThrows(IllegalStateException.class, () -> pipeline.run(sink -> {
+            for (int i = 0; i < 10_000; i++) {
+                sink.accept(new SimpleUserDto("+38050" + (1_000_000 + i), "First", "Last", ""));
+            }
+        }, 0, chunk -> {
+            throw new IllegalStateException("database down");
+        }));
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.dentalclinicmanagement.service.impl;
 
+import org.example.dentalclinicmanagement.cache.SecurityVersionCache;
 import org.example.dentalclinicmanagement.dto.DentistProfileDto;
 import org.example.dentalclinicmanagement.dto.MinimalUserRegistrationDTO;
 import org.example.dentalclinicmanagement.dto.UserDto;
+import org.example.dentalclinicmanagement.dto.UserSliceDto;
 import org.example.dentalclinicmanagement.dto.request.ChangePasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.ForgotPasswordRequest;
 import org.example.dentalclinicmanagement.dto.request.ResetPasswordRequest;
@@ -16,21 +18,30 @@ import org.example.dentalclinicmanagement.model.*;
 import org.example.dentalclinicmanagement.repository.DentistProfileRepository;
 import org.example.dentalclinicmanagement.repository.PasswordResetTokenRepository;
 import org.example.dentalclinicmanagement.repository.UserRepository;
+import org.example.dentalclinicmanagement.service.RefreshTokenService;
 import org.example.dentalclinicmanagement.util.EmailUtil;
+import org.example.dentalclinicmanagement.util.TokenHashUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -55,6 +66,12 @@ class UserServiceImplTest {
     @Mock
     private EmailUtil emailUtil;
 
+    @Mock
+    private SecurityVersionCache securityVersionCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -159,6 +176,7 @@ class UserServiceImplTest {
 
         assertNotNull(result);
         verify(userRepository).save(argThat(savedUser -> savedUser.getRole().equals(Role.DENTIST)));
+        verify(securityVersionCache).put(1L, 1);
         verify(dentistProfileRepository).save(argThat(profile ->
                 profile.getDentist().equals(user) &&
                         profile.getDescription().equals("Default description") &&
@@ -259,6 +277,21 @@ class UserServiceImplTest {
         verify(userRepository, never()).save(any());
     }
 
+    @Test
+    void changePassword_PasswordNotSet_ThrowsWithoutCheckingEncoder() {
+        user.setPassword(User.UNSET_PASSWORD);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        PasswordUpdateException exception = assertThrows(
+                PasswordUpdateException.class,
+                () -> userService.changePassword(1L, changePasswordRequest)
+        );
+
+        assertEquals("update.password.not.set", exception.getMessage());
+        verifyNoInteractions(passwordEncoder);
+        verify(userRepository, never()).save(any());
+    }
+
     @Test
     void changePassword_SamePassword_ThrowsException() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
@@ -287,7 +320,7 @@ class UserServiceImplTest {
 
         verify(passwordResetTokenRepository).save(argThat(token ->
                 token.getUser().equals(user) &&
-                        token.getToken() != null &&
+                        token.getTokenHash() != null && token.getTokenHash().length == 32 &&
                         token.getExpiryDate().isAfter(Instant.now())
         ));
         verify(emailUtil).sendPasswordResetEmail(eq("user@example.com"), anyString());
@@ -301,12 +334,13 @@ class UserServiceImplTest {
         request.setNewPassword("newPassword123");
 
         PasswordResetToken resetToken = new PasswordResetToken();
-        resetToken.setToken(tokenValue);
+        resetToken.setTokenHash(TokenHashUtil.sha256(tokenValue));
         resetToken.setUser(user);
         resetToken.setUsed(false);
         resetToken.setExpiryDate(Instant.now().plus(1, ChronoUnit.HOURS));
 
-        when(passwordResetTokenRepository.findByToken(tokenValue)).thenReturn(Optional.of(resetToken));
+        when(passwordResetTokenRepository.findByTokenHash(aryEq(TokenHashUtil.sha256(tokenValue))))
+                .thenReturn(Optional.of(resetToken));
         when(passwordEncoder.encode("newPassword123")).thenReturn("new-encoded-password");
         when(passwordResetTokenRepository.save(any(PasswordResetToken.class))).thenReturn(resetToken);
         when(userRepository.save(any(User.class))).thenReturn(user);
@@ -318,6 +352,9 @@ class UserServiceImplTest {
                 savedUser.getPassword().equals("new-encoded-password")
         ));
         verify(passwordResetTokenRepository).save(argThat(PasswordResetToken::isUsed));
+        assertEquals(1, user.getSecurityVersion());
+        verify(securityVersionCache).put(user.getId(), 1);
+        verify(refreshTokenService).revokeAllForUser(user.getId());
     }
 
     @Test
@@ -326,7 +363,8 @@ class UserServiceImplTest {
         request.setToken("invalid-token");
         request.setNewPassword("newPassword123");
 
-        when(passwordResetTokenRepository.findByToken("invalid-token")).thenReturn(Optional.empty());
+        when(passwordResetTokenRepository.findByTokenHash(aryEq(TokenHashUtil.sha256("invalid-token"))))
+                .thenReturn(Optional.empty());
 
         ResetPasswordException exception = assertThrows(
                 ResetPasswordException.class,
@@ -345,11 +383,12 @@ class UserServiceImplTest {
         request.setNewPassword("newPassword123");
 
         PasswordResetToken expiredToken = new PasswordResetToken();
-        expiredToken.setToken(tokenValue);
+        expiredToken.setTokenHash(TokenHashUtil.sha256(tokenValue));
         expiredToken.setUser(user);
         expiredToken.setUsed(false);
         expiredToken.setExpiryDate(Instant.now().minus(1, ChronoUnit.HOURS));
-        when(passwordResetTokenRepository.findByToken(tokenValue)).thenReturn(Optional.of(expiredToken));
+        when(passwordResetTokenRepository.findByTokenHash(aryEq(TokenHashUtil.sha256(tokenValue))))
+                .thenReturn(Optional.of(expiredToken));
 
         ResetPasswordException exception = assertThrows(
                 ResetPasswordException.class,
@@ -368,12 +407,13 @@ class UserServiceImplTest {
         request.setNewPassword("newPassword123");
 
         PasswordResetToken usedToken = new PasswordResetToken();
-        usedToken.setToken(tokenValue);
+        usedToken.setTokenHash(TokenHashUtil.sha256(tokenValue));
         usedToken.setUser(user);
         usedToken.setUsed(true);
         usedToken.setExpiryDate(Instant.now().plus(1, ChronoUnit.HOURS));
 
-        when(passwordResetTokenRepository.findByToken(tokenValue)).thenReturn(Optional.of(usedToken));
+        when(passwordResetTokenRepository.findByTokenHash(aryEq(TokenHashUtil.sha256(tokenValue))))
+                .thenReturn(Optional.of(usedToken));
 
         ResetPasswordException exception = assertThrows(
                 ResetPasswordException.class,
@@ -455,8 +495,7 @@ class UserServiceImplTest {
         dto.setFirstName("John");
         dto.setLastName("Doe");
 
-        when(userRepository.existsByPhoneNumber("+1234567890")).thenReturn(false);
-        when(passwordEncoder.encode("defaultPassword")).thenReturn("encoded-default-password");
+        when(userRepository.existsByPhoneE164("+1234567890")).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(user);
         when(userMapper.toUserDTO(user)).thenReturn(userDto);
 
@@ -468,9 +507,42 @@ class UserServiceImplTest {
                         savedUser.getFirstName().equals("John") &&
                         savedUser.getLastName().equals("Doe") &&
                         savedUser.getEmail().equals("+1234567890@phone.com") &&
-                        savedUser.getPassword().equals("encoded-default-password") &&
+                        !savedUser.isPasswordSet() &&
                         savedUser.getRole().equals(Role.USER)
         ));
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void registerMinimalUser_NationalFormat_StoresE164() {
+        MinimalUserRegistrationDTO dto = new MinimalUserRegistrationDTO();
+        dto.setPhone("050 123 45 67");
+        dto.setFirstName("John");
+        dto.setLastName("Doe");
+
+        when(userRepository.existsByPhoneE164("+380501234567")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.toUserDTO(user)).thenReturn(userDto);
+
+        userService.registerMinimalUser(dto);
+
+        verify(userRepository).save(argThat(savedUser ->
+                savedUser.getPhoneNumber().equals("+380501234567") &&
+                        savedUser.getEmail().equals("+380501234567@phone.com")
+        ));
+    }
+
+    @Test
+    void updateUserProfile_PhoneUsedByAnotherUser_ThrowsException() {
+        UpdateUserProfileRequest request = UpdateUserProfileRequest.builder()
+                .phoneNumber("0501234567")
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findByPhoneE164("+380501234567")).thenReturn(Optional.of(dentist));
+
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUserProfile(1L, request));
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -480,7 +552,7 @@ class UserServiceImplTest {
         dto.setFirstName("John");
         dto.setLastName("Doe");
 
-        when(userRepository.existsByPhoneNumber("+1234567890")).thenReturn(true);
+        when(userRepository.existsByPhoneE164("+1234567890")).thenReturn(true);
 
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
@@ -530,4 +602,121 @@ class UserServiceImplTest {
                         savedUser.getPhoneNumber().equals("ValidPhone")
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllUsersWithFilters_Search_UsesNormalizedEscapedTrigramQuery() {
+        when(userRepository.searchUsers(eq("john_doe 50%"), eq("john\\_doe 50\\%"), eq("USER"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(user)));
+        when(userMapper.toUserDTO(user)).thenReturn(userDto);
+
+        Page<UserDto> result = userService.getAllUsersWithFilters(0, 10, Role.USER, "  John_Doe   50% ");
+
+        assertEquals(1, result.getTotalElements());
+        verify(userRepository, never()).findUsersWithFilters(any(), any());
+    }
+
+    @Test
+    void getAllUsersWithFilters_BlankSearch_ListsByRoleSortedByEmail() {
+        when(userRepository.findUsersWithFilters(eq(Role.DENTIST), argThat(p -> p.getSort().equals(Sort.by("email")))))
+                .thenReturn(new PageImpl<>(List.of(dentist)));
+        when(userMapper.toUserDTO(dentist)).thenReturn(userDto);
+
+        Page<UserDto> result = userService.getAllUsersWithFilters(0, 10, Role.DENTIST, "   ");
+
+        assertEquals(1, result.getTotalElements());
+        verify(userRepository, never()).searchUsers(any(), any(), any(), any());
+    }
+
+    @Test
+    void refreshDerivedColumns_NormalizesSearchTextAndPhone() {
+        user.setFirstName("  John ");
+        user.setLastName("DOE");
+        user.setPhoneNumber("050 123-45-67");
+
+        ReflectionTestUtils.invokeMethod(user, "refreshDerivedColumns");
+
+        assertEquals("john doe user@example.com", user.getSearchText());
+        assertEquals("+380501234567", user.getPhoneE164());
+    }
+
+    @Test
+    void refreshDerivedColumns_CollidingPhoneLeftUnsetByBackfill_KeepsPhoneE164Unset() {
+        // dentist already owns +380501234567; the backfill left this user's phone_e164 null
+        dentist.setPhoneE164("+380501234567");
+        user.setPhoneNumber("050 123 45 67");
+        user.setPhoneE164(null);
+        ReflectionTestUtils.invokeMethod(user, "rememberLoadedPhone");
+
+        user.setFirstName("Renamed");
+        ReflectionTestUtils.invokeMethod(user, "refreshDerivedColumns");
+        assertNull(user.getPhoneE164());
+
+        user.setPhoneNumber("+380671112233");
+        ReflectionTestUtils.invokeMethod(user, "refreshDerivedColumns");
+        assertEquals("+380671112233", user.getPhoneE164());
+    }
+
+    @Test
+    void scrollUsers_FirstSlice_ReturnsCursorForNextSlice() {
+        when(userRepository.findFirstSlice(null, Limit.of(2))).thenReturn(List.of(user, dentist));
+        when(userMapper.toUserDTO(user)).thenReturn(userDto);
+        when(userRepository.estimateRowCount()).thenReturn(200_000L);
+
+        UserSliceDto first = userService.scrollUsers(null, 1, null, null, true);
+
+        assertTrue(first.hasNext());
+        assertEquals(1, first.content().size());
+        assertEquals(200_000L, first.approximateTotal());
+
+        when(userRepository.findSliceAfter(null, "user@example.com", 1L, Limit.of(2))).thenReturn(List.of(dentist));
+        when(userMapper.toUserDTO(dentist)).thenReturn(userDto);
+
+        UserSliceDto second = userService.scrollUsers(first.nextCursor(), 1, null, null, false);
+
+        assertFalse(second.hasNext());
+        assertNull(second.nextCursor());
+        assertNull(second.approximateTotal());
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void scrollUsers_RoleFilter_UsesPlannerEstimateInsteadOfCount() {
+        when(userRepository.findFirstSlice(Role.USER, Limit.of(11))).thenReturn(List.of(user));
+        when(userMapper.toUserDTO(user)).thenReturn(userDto);
+        when(userRepository.estimateRowCountByRole("USER")).thenReturn(180_000L);
+
+        UserSliceDto result = userService.scrollUsers(null, 10, Role.USER, null, true);
+
+        assertEquals(180_000L, result.approximateTotal());
+        verify(userRepository, never()).countByRole(any());
+    }
+
+    @Test
+    void scrollUsers_RareRoleFilter_FallsBackToIndexedCount() {
+        when(userRepository.findFirstSlice(Role.ADMIN, Limit.of(11))).thenReturn(List.of());
+        when(userRepository.estimateRowCountByRole("ADMIN")).thenReturn(null);
+        when(userRepository.countByRole(Role.ADMIN)).thenReturn(3);
+
+        UserSliceDto result = userService.scrollUsers(null, 10, Role.ADMIN, null, true);
+
+        assertEquals(3L, result.approximateTotal());
+    }
+
+    @Test
+    void scrollUsers_Search_UsesKeysetSearchWithoutTotal() {
+        when(userRepository.searchSlice("doe", null, null, null, 11)).thenReturn(List.of(user));
+        when(userMapper.toUserDTO(user)).thenReturn(userDto);
+
+        UserSliceDto result = userService.scrollUsers(null, 10, null, " Doe ", true);
+
+        assertFalse(result.hasNext());
+        assertNull(result.approximateTotal());
+        verify(userRepository, never()).estimateRowCount();
+    }
+
+    @Test
+    void scrollUsers_InvalidCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.scrollUsers("not-a-cursor", 10, null, null, false));
+    }
+}
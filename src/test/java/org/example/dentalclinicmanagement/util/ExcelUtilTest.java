@@ -0,0 +1,106 @@
+package org.example.dentalclinicmanagement.util;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.example.dentalclinicmanagement.dto.AppointmentExportDto;
+import org.example.dentalclinicmanagement.dto.SimpleUserDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelUtilTest {
+
+    @Test
+    void forEachUser_Xlsx_StreamsRowsWithPlainNumbersAndBlankGaps() throws IOException {
+        List<SimpleUserDto> rows = read(new XSSFWorkbook());
+
+        assertEquals(List.of(
+                new SimpleUserDto("380501234567", "Ivan", "Petrenko", "ivan@example.com"),
+                new SimpleUserDto("+380507654321", "Olena", "", "")
+        ), rows);
+    }
+
+    @Test
+    void forEachUser_LegacyXls_FallsBackToWorkbookReader() throws IOException {
+        List<SimpleUserDto> rows = read(new HSSFWorkbook());
+
+        assertEquals(List.of(
+                new SimpleUserDto("380501234567", "Ivan", "Petrenko", "ivan@example.com"),
+                new SimpleUserDto("+380507654321", "Olena", "", "")
+        ), rows);
+    }
+
+    @Test
+    void writeUsers_StreamsRowsThatReadBack() throws IOException {
+        List<SimpleUserDto> users = List.of(
+                new SimpleUserDto("+380501234567", "Ivan", "Petrenko", "ivan@example.com"),
+                new SimpleUserDto("+380507654321", "Olena", "Shevchenko", "olena@example.com"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelUtil.writeUsers(users.stream(), out);
+
+        List<SimpleUserDto> rows = new ArrayList<>();
+        ExcelUtil.forEachUser(new ByteArrayInputStream(out.toByteArray()), rows::add);
+        assertEquals(users, rows);
+    }
+
+    @Test
+    void writeAppointments_WritesDateTimeCellsAndLeavesMissingDurationBlank() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2026, 9, 1, 9, 30);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelUtil.writeAppointments(Stream.of(new AppointmentExportDto(7L, time, null, "Anna Dentist",
+                "anna@clinic.com", "Ivan Petrenko", "+380500000001", "ivan@example.com", "Filling")), out);
+
+        try (Workbook wb = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = wb.getSheet("Appointments");
+            assertEquals("appointment_time", sheet.getRow(0).getCell(1).getStringCellValue());
+
+            Row row = sheet.getRow(1);
+            assertEquals(7, row.getCell(0).getNumericCellValue());
+            assertEquals(time, row.getCell(1).getLocalDateTimeCellValue());
+            assertEquals("yyyy-mm-dd hh:mm", row.getCell(1).getCellStyle().getDataFormatString());
+            assertNull(row.getCell(2));
+            assertEquals("Filling", row.getCell(8).getStringCellValue());
+        }
+    }
+
+    private static List<SimpleUserDto> read(Workbook wb) throws IOException {
+        byte[] bytes;
+        try (wb; ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("Users");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("phone");
+            header.createCell(1).setCellValue("first_name");
+            header.createCell(2).setCellValue("last_name");
+            header.createCell(3).setCellValue("email");
+
+            Row numeric = sheet.createRow(1);
+            numeric.createCell(0).setCellValue(380501234567d);
+            numeric.createCell(1).setCellValue(" Ivan ");
+            numeric.createCell(2).setCellValue("Petrenko");
+            numeric.createCell(3).setCellValue("ivan@example.com");
+
+            Row sparse = sheet.createRow(2);
+            sparse.createCell(0).setCellValue("+380507654321");
+            sparse.createCell(1).setCellValue("Olena");
+
+            wb.write(out);
+            bytes = out.toByteArray();
+        }
+
+        List<SimpleUserDto> rows = new ArrayList<>();
+        ExcelUtil.forEachUser(new ByteArrayInputStream(bytes), rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.dentalclinicmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneUtilTest {
+
+    @Test
+    void toE164_FormattingVariants_MapToOneKey() {
+        assertEquals("+380501234567", PhoneUtil.toE164("+380501234567"));
+        assertEquals("+380501234567", PhoneUtil.toE164(" +38 (050) 123-45-67 "));
+        assertEquals("+380501234567", PhoneUtil.toE164("050 123 45 67"));
+        assertEquals("+380501234567", PhoneUtil.toE164("00380501234567"));
+        assertEquals("+380501234567", PhoneUtil.toE164("380501234567"));
+        assertEquals("+1234567890", PhoneUtil.toE164("+1 234.567.890"));
+    }
+
+    @Test
+    void toE164_NationalNumberWithoutTrunkZero_StaysUkrainian() {
+        assertEquals("+380501234567", PhoneUtil.toE164("501234567"));
+        assertEquals("+380501234567", PhoneUtil.toE164("50 123 45 67"));
+    }
+
+    @Test
+    void toE164_UnusableValues_ReturnNull() {
+        assertNull(PhoneUtil.toE164(null));
+        assertNull(PhoneUtil.toE164("   "));
+        assertNull(PhoneUtil.toE164("n/a"));
+        assertNull(PhoneUtil.toE164("+0987654321"));
+        assertNull(PhoneUtil.toE164("12345"));
+        assertNull(PhoneUtil.toE164("+1234567890123456"));
+        assertNull(PhoneUtil.toE164("050+1234567"));
+    }
+}